@@ -0,0 +1,351 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.AuditLogTail;
+import org.wrensecurity.wrenidm.test.base.Await;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentReset;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.H2Shell;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import org.wrensecurity.wrenidm.test.base.LoadGenerator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Cost of audit on the managed user write path and latency of audit queries over growing audit tables.
+ *
+ * <p>Writes are measured for every audit mode from {@code benchmark.audit.modes} - {@code off} disables all event
+ * handlers, other modes enable only the handler of the given name ({@code json} or {@code repo}) and use it for
+ * queries. Audit queries are measured with the {@code repo} handler after the {@code auditsync} and
+ * {@code auditrecon} tables are filled with generated rows up to {@code benchmark.audit.tableSizes}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class AuditBenchmark extends BaseBenchmarkTest {
+
+    private static final String AUDIT_CONFIG_PATH = "/openidm/config/audit";
+
+    private static final String REPO_HANDLER_CLASS = "org.forgerock.openidm.audit.impl.RepositoryAuditEventHandler";
+
+    private static final String JSON_HANDLER_CLASS = "org.forgerock.audit.handlers.json.JsonAuditEventHandler";
+
+    private static final String COUNT_ACCESS_ROWS = "SELECT COUNT(*) FROM wrenidm.auditaccess";
+
+    private static final int MAX_CONFIG_WAIT_SECONDS = 30;
+
+    private static final String USER_PREFIX = "auditwrite";
+
+    // Prefix of generated audit rows
+    private static final String ROW_PREFIX = "auditbench-";
+
+    private static final int ROWS_PER_RECON = 10000;
+
+    private static final String SYNC_MAPPING = "managedUser_ldapAccount";
+
+    private static final List<EnvironmentReset> RESETS = List.of(
+            EnvironmentResets.managedObjects("user"),
+            EnvironmentResets.repoTable("audit/sync"),
+            EnvironmentResets.repoTable("audit/recon"),
+            EnvironmentResets.repoTable("audit/access"),
+            EnvironmentResets.repoTable("audit/activity"));
+
+    private static final String USER_DATA = """
+        {
+          "userName": "%s",
+          "givenName": "John",
+          "sn": "Doe",
+          "mail": "%s@wrensecurity.org",
+          "password": "Password1"
+        }
+        """;
+
+    private static final List<Lookup> LOOKUPS = List.of(
+            new Lookup("sync mapping+sourceObjectId+status",
+                    index -> "/openidm/audit/sync?_queryFilter=" + encode("/mapping eq \"" + SYNC_MAPPING + "\" and /sourceObjectId sw \""
+                            + sourceObjectId(index) + "\" and /status eq \"SUCCESS\""),
+                    index -> "SELECT objectid FROM wrenidm.auditsync WHERE mapping = '" + SYNC_MAPPING
+                            + "' AND sourceobjectid LIKE '" + sourceObjectId(index) + "%' AND status = 'SUCCESS'"),
+            new Lookup("recon reconId+entryType",
+                    index -> "/openidm/audit/recon?_queryFilter=" + encode("/reconId eq \"" + reconId(index) + "\" and /entryType eq \"entry\"")
+                            + "&_pageSize=50",
+                    index -> "SELECT objectid FROM wrenidm.auditrecon WHERE reconid = '" + reconId(index)
+                            + "' AND entrytype = 'entry' LIMIT 50"),
+            new Lookup("recon sourceObjectId",
+                    index -> "/openidm/audit/recon?_queryFilter=" + encode("/sourceObjectId eq \"" + sourceObjectId(index) + "\""),
+                    index -> "SELECT objectid FROM wrenidm.auditrecon WHERE sourceobjectid = '"
+                            + sourceObjectId(index) + "'"));
+
+    private final BenchmarkReport report = new BenchmarkReport("audit");
+
+    private final Random random = new Random(42);
+
+    private H2Shell h2;
+
+    private JsonNode originalConfig;
+
+    private int generatedRows;
+
+    @BeforeAll
+    public void init() throws Exception {
+        EnvironmentSpec spec = EnvironmentSpec.forCase("sync")
+                .withExposedService(H2Shell.SERVICE_NAME, H2Shell.TCP_PORT);
+        RESETS.forEach(spec::withReset);
+        environment = EnvironmentPool.acquire(spec);
+        h2 = new H2Shell(environment);
+
+        HttpResponse<String> configResp = httpClient.send(request(AUDIT_CONFIG_PATH).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, configResp.statusCode(), configResp.body());
+        originalConfig = mapper.readTree(configResp.body());
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        try {
+            if (originalConfig != null) {
+                applyConfig(originalConfig);
+                for (EnvironmentReset reset : RESETS) {
+                    reset.reset(environment);
+                }
+            }
+        } finally {
+            report.write();
+            EnvironmentPool.release(environment);
+        }
+    }
+
+    public List<String> auditModes() {
+        return BenchmarkProperties.getStringList("benchmark.audit.modes", "off,json,repo");
+    }
+
+    public List<Integer> tableSizes() {
+        return BenchmarkProperties.getIntList("benchmark.audit.tableSizes", "100000,1000000");
+    }
+
+    @ParameterizedTest(name = "audit {0}")
+    @MethodSource("auditModes")
+    @Order(1)
+    public void testWriteCost(String mode) throws Exception {
+        applyConfig(auditConfig(mode));
+        EnvironmentResets.managedObjects("user").reset(environment);
+        long accessRows = h2.queryLong(COUNT_ACCESS_ROWS);
+        long activityRows = h2.queryLong("SELECT COUNT(*) FROM wrenidm.auditactivity");
+
+        int writes = BenchmarkProperties.getInt("benchmark.audit.writes", 2000);
+        LoadGenerator.Result load = LoadGenerator.forRequests(httpClient, index -> {
+                    String userName = USER_PREFIX + index;
+                    return request("/openidm/managed/user/" + userName)
+                            .header("Content-Type", "application/json")
+                            .PUT(HttpRequest.BodyPublishers.ofString(USER_DATA.formatted(userName, userName)))
+                            .build();
+                })
+                .withConcurrency(BenchmarkProperties.getInt("benchmark.audit.concurrency", 8))
+                .withRequests(writes)
+                .withExpectedStatus(201)
+                .run();
+        assertEquals(0, load.getErrors(), load.getFirstError());
+
+        ObjectNode result = report.addResult();
+        result.put("auditMode", mode);
+        load.writeTo(result.putObject("writes"));
+        // Repository handler rows only, other handlers do not write to the database
+        result.put("accessRowsPerWrite",
+                (h2.queryLong(COUNT_ACCESS_ROWS) - accessRows) / (double) writes);
+        result.put("activityRowsPerWrite",
+                (h2.queryLong("SELECT COUNT(*) FROM wrenidm.auditactivity") - activityRows) / (double) writes);
+    }
+
+    @ParameterizedTest(name = "{0} rows")
+    @MethodSource("tableSizes")
+    @Order(2)
+    public void testQueries(int rows) throws Exception {
+        applyConfig(auditConfig("repo"));
+        if (rows > generatedRows) {
+            generateRows(generatedRows + 1, rows);
+            generatedRows = rows;
+        }
+
+        ObjectNode result = report.addResult();
+        result.put("auditSyncRows", h2.queryLong("SELECT COUNT(*) FROM wrenidm.auditsync"));
+        result.put("auditReconRows", h2.queryLong("SELECT COUNT(*) FROM wrenidm.auditrecon"));
+        ObjectNode lookups = result.putObject("lookups");
+        int repeats = BenchmarkProperties.getInt("benchmark.audit.queryRepeats", 20);
+        for (Lookup lookup : LOOKUPS) {
+            LatencyHistogram latency = new LatencyHistogram();
+            for (int i = 0; i < repeats; i++) {
+                int index = 1 + random.nextInt(rows);
+                HttpRequest req = request(lookup.path().apply(index)).build();
+                long startNanos = System.nanoTime();
+                HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
+                latency.record(System.nanoTime() - startNanos);
+                assertEquals(200, resp.statusCode(), resp.body());
+            }
+            H2Shell.Plan plan = h2.explainAnalyze(lookup.sql().apply(1 + random.nextInt(rows)));
+            ObjectNode lookupResult = latency.writeTo(lookups.putObject(lookup.name()));
+            lookupResult.put("scanCount", plan.scanCount());
+            lookupResult.put("tableScan", plan.tableScan());
+        }
+    }
+
+    /**
+     * Insert generated sync and reconciliation audit rows with the given indexes directly to the database.
+     */
+    private void generateRows(int from, int to) throws Exception {
+        h2.insertRange(from, to, range -> "INSERT INTO wrenidm.auditsync (objectid, transactionid, activitydate, "
+                + "eventname, activity, mapping, situation, sourceobjectid, status, targetobjectid) "
+                + "SELECT '" + ROW_PREFIX + "sync-' || X, '" + ROW_PREFIX + "tx-' || X, '2026-01-01T00:00:00.000Z', "
+                + "'sync', 'UPDATE', CASE WHEN MOD(X, 2) = 0 THEN '" + SYNC_MAPPING + "' ELSE 'csvEmployee_managedUser' END, "
+                + "'CONFIRMED', 'managed/user/" + ROW_PREFIX + "' || LPAD(CAST(X AS VARCHAR), 8, '0'), "
+                + "CASE WHEN MOD(X, 10) = 0 THEN 'FAILURE' ELSE 'SUCCESS' END, 'system/ldap/account/' || X "
+                + "FROM " + range);
+        h2.insertRange(from, to, range -> "INSERT INTO wrenidm.auditrecon (objectid, transactionid, activitydate, "
+                + "eventname, activity, mapping, situation, sourceobjectid, status, targetobjectid, reconciling, "
+                + "reconaction, entrytype, reconid) "
+                + "SELECT '" + ROW_PREFIX + "recon-' || X, '" + ROW_PREFIX + "tx-' || X, '2026-01-01T00:00:00.000Z', "
+                + "'recon', 'CREATE', 'csvEmployee_managedUser', 'ABSENT', "
+                + "'managed/user/" + ROW_PREFIX + "' || LPAD(CAST(X AS VARCHAR), 8, '0'), 'SUCCESS', "
+                + "'managed/user/' || X, 'source', 'CREATE', 'entry', "
+                + "'" + ROW_PREFIX + "recon-' || ((X - 1) / " + ROWS_PER_RECON + ") "
+                + "FROM " + range);
+    }
+
+    /**
+     * Audit configuration with only the handler of the given name enabled (all handlers disabled for {@code off}).
+     */
+    private JsonNode auditConfig(String mode) {
+        ObjectNode config = originalConfig.deepCopy();
+        boolean found = false;
+        for (JsonNode handler : config.path("eventHandlers")) {
+            ObjectNode handlerConfig = (ObjectNode) handler.path("config");
+            boolean enabled = mode.equals(handlerConfig.path("name").asString());
+            handlerConfig.put("enabled", enabled);
+            found |= enabled;
+        }
+        if (!found && "repo".equals(mode)) {
+            ObjectNode handlerConfig = ((ArrayNode) config.path("eventHandlers")).addObject()
+                    .put("class", REPO_HANDLER_CLASS)
+                    .putObject("config")
+                    .put("name", "repo")
+                    .put("enabled", true);
+            ArrayNode topics = handlerConfig.putArray("topics");
+            List.of("access", "activity", "recon", "sync", "authentication", "config").forEach(topics::add);
+        } else if (!found && !"off".equals(mode)) {
+            throw new IllegalArgumentException("No audit event handler named " + mode);
+        }
+        // Queries must not be routed to a disabled handler
+        if ("off".equals(mode)) {
+            ((ObjectNode) config.path("auditServiceConfig")).remove("handlerForQueries");
+        } else {
+            ((ObjectNode) config.path("auditServiceConfig")).put("handlerForQueries", mode);
+        }
+        return config;
+    }
+
+    private void applyConfig(JsonNode config) throws Exception {
+        ObjectNode body = config.deepCopy();
+        body.remove("_id");
+        HttpResponse<String> configResp = httpClient.send(request(AUDIT_CONFIG_PATH)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, configResp.statusCode(), configResp.body());
+
+        // Audit service is reconfigured asynchronously, probe requests must be recorded by exactly the enabled
+        // handlers - both the repository table and the JSON access log are watched, so that every mode switch
+        // changes the awaited outcome
+        boolean repoEnabled = isAccessAudited(body, REPO_HANDLER_CLASS);
+        boolean jsonEnabled = isAccessAudited(body, JSON_HANDLER_CLASS);
+        try (AuditLogTail jsonAccess = AuditLogTail.open(environment, "access")) {
+            long[] written = { h2.queryLong(COUNT_ACCESS_ROWS), jsonAccess.getEventCount() };
+            Await.until("audit service after configuration change", () -> {
+                        HttpResponse<String> pingResp = httpClient.send(request("/openidm/info/ping").build(),
+                                HttpResponse.BodyHandlers.ofString());
+                        assertEquals(200, pingResp.statusCode(), pingResp.body());
+                        long rows = h2.queryLong(COUNT_ACCESS_ROWS);
+                        long events = jsonAccess.getEventCount();
+                        AccessWrites writes = new AccessWrites(jsonAccess.isStarted(), rows - written[0],
+                                events - written[1]);
+                        written[0] = rows;
+                        written[1] = events;
+                        return writes;
+                    }, writes -> writes.tailStarted()
+                            && (writes.repoRows() > 0) == repoEnabled
+                            && (writes.jsonEvents() > 0) == jsonEnabled)
+                    .atMost(Duration.ofSeconds(MAX_CONFIG_WAIT_SECONDS))
+                    .withSignal(jsonAccess.getSignal())
+                    .describedAs(writes -> writes + " by probe request with repository handler "
+                            + (repoEnabled ? "enabled" : "disabled") + " and JSON handler "
+                            + (jsonEnabled ? "enabled" : "disabled"))
+                    .get();
+        }
+    }
+
+    /**
+     * Access events written since the previous probe request.
+     */
+    private record AccessWrites(boolean tailStarted, long repoRows, long jsonEvents) {
+    }
+
+    /**
+     * Whether the given audit configuration writes access events through the handler of the given class.
+     */
+    private static boolean isAccessAudited(JsonNode config, String handlerClass) {
+        for (JsonNode handler : config.path("eventHandlers")) {
+            JsonNode handlerConfig = handler.path("config");
+            if (!handlerClass.equals(handler.path("class").asString())
+                    || !handlerConfig.path("enabled").asBoolean(true)) {
+                continue;
+            }
+            for (JsonNode topic : handlerConfig.path("topics")) {
+                if ("access".equals(topic.asString())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String sourceObjectId(int index) {
+        return "managed/user/" + ROW_PREFIX + String.format("%08d", index);
+    }
+
+    private static String reconId(int index) {
+        return ROW_PREFIX + "recon-" + (index - 1) / ROWS_PER_RECON;
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+
+/**
+ * Base class for JUnit benchmarks running against a Wren:IDM environment with request helpers shared by the
+ * benchmarks.
+ */
+public abstract class BaseBenchmarkTest extends BaseWrenidmTest {
+
+    /**
+     * Request to the given path of the environment authorized as the administrator.
+     */
+    protected HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + path))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE);
+    }
+
+    /**
+     * Encode query parameter value.
+     */
+    protected static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+}
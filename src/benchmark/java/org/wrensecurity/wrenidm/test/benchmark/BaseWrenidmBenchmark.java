@@ -0,0 +1,74 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+
+/**
+ * Base class for JMH benchmarks running against a Wren:IDM environment. The environment is acquired once per
+ * trial (i.e. once per forked benchmark JVM).
+ */
+@State(Scope.Benchmark)
+public abstract class BaseWrenidmBenchmark extends BaseWrenidmTest {
+
+    protected abstract EnvironmentSpec environmentSpec();
+
+    @Setup(Level.Trial)
+    public void acquireEnvironment() throws Exception {
+        environment = EnvironmentPool.acquire(environmentSpec());
+        setupData();
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseEnvironment() {
+        EnvironmentPool.release(environment);
+    }
+
+    /**
+     * Prepare data required by the benchmark methods.
+     */
+    protected void setupData() throws Exception {
+    }
+
+    protected HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + path))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE);
+    }
+
+    /**
+     * Send the request and fail the benchmark when the response status does not match.
+     */
+    protected String send(HttpRequest request, int expectedStatus) throws Exception {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for "
+                    + request.method() + " " + request.uri() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Access to benchmark settings passed as system properties (e.g. {@code -Dbenchmark.recon.sizes=1000,100000}).
+ */
+public final class BenchmarkProperties {
+
+    private BenchmarkProperties() {
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        return Integer.getInteger(name, defaultValue);
+    }
+
+    public static double getDouble(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * Comma separated list of integers.
+     */
+    public static List<Integer> getIntList(String name, String defaultValue) {
+        return Arrays.stream(System.getProperty(name, defaultValue).split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(Integer::valueOf)
+                .toList();
+    }
+
+    /**
+     * Comma separated list of strings.
+     */
+    public static List<String> getStringList(String name, String defaultValue) {
+        return Arrays.stream(System.getProperty(name, defaultValue).split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .toList();
+    }
+
+}
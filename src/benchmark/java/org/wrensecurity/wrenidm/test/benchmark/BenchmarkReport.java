@@ -0,0 +1,70 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON report of a benchmark scenario written to {@code target/benchmark/<name>.json} (directory can be changed
+ * with {@code benchmark.reportDir} property).
+ */
+public final class BenchmarkReport {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final String name;
+
+    private final ObjectNode root = mapper.createObjectNode();
+
+    private final ArrayNode results;
+
+    public BenchmarkReport(String name) {
+        this.name = name;
+        root.put("benchmark", name);
+        root.put("image", System.getenv().getOrDefault("WRENIDM_IMAGE", "wrensecurity/wrenidm:latest"));
+        root.put("timestamp", Instant.now().toString());
+        results = root.putArray("results");
+    }
+
+    /**
+     * Report level attributes (e.g. benchmark settings).
+     */
+    public ObjectNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Add result entry (e.g. a measurement for a single data set size).
+     */
+    public synchronized ObjectNode addResult() {
+        return results.addObject();
+    }
+
+    public synchronized Path write() throws IOException {
+        Path reportDir = Path.of(System.getProperty("benchmark.reportDir", "target/benchmark"));
+        Files.createDirectories(reportDir);
+        Path reportFile = reportDir.resolve(name + ".json");
+        mapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), root);
+        return reportFile;
+    }
+
+}
@@ -0,0 +1,406 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.Await;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.ContainerControl;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.H2SessionSampler;
+import org.wrensecurity.wrenidm.test.base.H2Shell;
+import org.wrensecurity.wrenidm.test.base.HrCsvGenerator;
+import org.wrensecurity.wrenidm.test.base.LoadGenerator;
+import org.wrensecurity.wrenidm.test.base.ManagedUserLoader;
+import org.wrensecurity.wrenidm.test.base.Reconciliation;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Scaling of a Wren:IDM cluster sharing one H2 repository ({@code cluster} case) with the number of nodes.
+ *
+ * <p>For every node count in {@code benchmark.cluster.nodes} the benchmark measures REST read and write throughput
+ * through the nginx load balancer at a fixed client concurrency, reconciliation time and the share of H2 samples
+ * that caught cluster management statements (instance check-in and {@code query-cluster-*} queries) running.
+ * Reconciliation of a mapping runs on the node that received the request, so it shows the cost of sharing the
+ * repository rather than a parallel speedup. With more than one node the last node is killed under load and the
+ * benchmark reports how long the remaining nodes take to detect the failure and to recover the instance, how many
+ * requests failed meanwhile and how long the restarted node takes to rejoin. The REST throughput at the highest
+ * node count is finally compared with clustering disabled.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ClusterBenchmark extends BaseWrenidmTest {
+
+    private static final String LB_SERVICE_NAME = "lb";
+
+    private static final int LB_PORT = 80;
+
+    private static final String RECON_MAPPING = "csvEmployee_managedUser";
+
+    private static final String UID_PREFIX = "cluster";
+
+    private static final Path DATA_DIR = Path.of("target/benchmark-data/cluster").toAbsolutePath();
+
+    private static final Duration MAX_NODE_WAIT = Duration.ofMinutes(5);
+
+    private static final Duration MAX_FAILOVER_WAIT = Duration.ofMinutes(3);
+
+    // Executing statements of cluster management (instance check-in and cluster queries)
+    private static final String CLUSTER_STATEMENTS = "%clusterobject%";
+
+    private final BenchmarkReport report = new BenchmarkReport("cluster");
+
+    private final int rows = BenchmarkProperties.getInt("benchmark.cluster.rows", 2000);
+
+    private final int users = BenchmarkProperties.getInt("benchmark.cluster.users", 1000);
+
+    private final int concurrency = BenchmarkProperties.getInt("benchmark.cluster.concurrency", 32);
+
+    private final Duration loadDuration = Duration.ofSeconds(
+            BenchmarkProperties.getInt("benchmark.cluster.seconds", 30));
+
+    private final Duration sessionSampleInterval = Duration.ofMillis(
+            BenchmarkProperties.getInt("benchmark.cluster.sessionSampleMillis", 200));
+
+    private final Map<String, Double> singleNodeRates = new HashMap<>();
+
+    private H2Shell h2;
+
+    private int writeRun;
+
+    @BeforeAll
+    public void init() throws Exception {
+        new HrCsvGenerator(UID_PREFIX + "recon")
+                .withInvalidRatio(0)
+                .withExistingRatio(0)
+                .generate(DATA_DIR.resolve("hr.csv"), rows);
+        report.getRoot().put("rows", rows);
+        report.getRoot().put("users", users);
+        report.getRoot().put("concurrency", concurrency);
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        report.write();
+    }
+
+    public List<Integer> nodeCounts() {
+        return BenchmarkProperties.getIntList("benchmark.cluster.nodes", "1,2,3,4");
+    }
+
+    @ParameterizedTest(name = "{0} nodes")
+    @MethodSource("nodeCounts")
+    @Order(1)
+    public void testScaling(int nodes) throws Exception {
+        acquire(nodes, true);
+        try {
+            ObjectNode result = report.addResult();
+            result.put("nodes", nodes);
+            result.put("clusterEnabled", true);
+            measureRest(result, nodes);
+            measureRecon(result.putObject("recon"));
+            result.put("clusterObjects", h2.queryLong("SELECT COUNT(*) FROM wrenidm.clusterobjects"));
+            ObjectNode plans = result.putObject("plans");
+            for (String query : List.of("query-cluster-instances", "query-cluster-failed-instances",
+                    "query-cluster-events")) {
+                H2Shell.Plan plan = h2.explainAnalyze(clusterQuerySql(query));
+                plans.putObject(query)
+                        .put("scanCount", plan.scanCount())
+                        .put("tableScan", plan.tableScan());
+            }
+            if (nodes > 1) {
+                measureFailover(result.putObject("failover"), nodes);
+            }
+        } finally {
+            EnvironmentPool.release(environment);
+        }
+    }
+
+    /**
+     * REST throughput at the highest node count with clustering disabled in {@code cluster.json}.
+     */
+    @Test
+    @Order(2)
+    public void testClusterDisabled() throws Exception {
+        int nodes = nodeCounts().stream().mapToInt(Integer::intValue).max().orElse(1);
+        acquire(nodes, false);
+        try {
+            ObjectNode result = report.addResult();
+            result.put("nodes", nodes);
+            result.put("clusterEnabled", false);
+            measureRest(result, nodes);
+        } finally {
+            EnvironmentPool.release(environment);
+        }
+    }
+
+    private void acquire(int nodes, boolean clusterEnabled) throws Exception {
+        EnvironmentSpec spec = EnvironmentSpec.forCase("cluster")
+                .withEnv("COMPOSE_PROFILES", IntStream.rangeClosed(2, nodes)
+                        .mapToObj(node -> "node" + node)
+                        .collect(Collectors.joining(",")))
+                .withEnv("CLUSTER_UPSTREAMS", IntStream.rangeClosed(1, nodes)
+                        .mapToObj(node -> "server " + serviceName(node) + ":" + WRENIDM_PORT + ";")
+                        .collect(Collectors.joining(" ")))
+                .withEnv("SYNC_DATA_DIR", DATA_DIR.toString())
+                .withExposedService(LB_SERVICE_NAME, LB_PORT)
+                .withExposedService(H2Shell.SERVICE_NAME, H2Shell.TCP_PORT)
+                .withProvisioner("csv")
+                .withReset(EnvironmentResets.links(RECON_MAPPING))
+                .withReset(EnvironmentResets.managedObjects("user"))
+                .withReset(EnvironmentResets.repoTable("audit/recon"))
+                .withReset(EnvironmentResets.repoTable("audit/sync"));
+        if (!clusterEnabled) {
+            spec.withEnv("CLUSTER_CONFIG", "./conf/cluster-disabled.json");
+        }
+        for (int node = 2; node <= nodes; node++) {
+            spec.withExposedService(serviceName(node), WRENIDM_PORT);
+        }
+        environment = EnvironmentPool.acquire(spec);
+        h2 = new H2Shell(environment);
+
+        // Only the first node is awaited by the environment
+        for (int node = 2; node <= nodes; node++) {
+            awaitReady(node);
+        }
+        if (clusterEnabled) {
+            for (int node = 1; node <= nodes; node++) {
+                awaitInstanceState(node, "running"::equals);
+            }
+        }
+    }
+
+    private void measureRest(ObjectNode result, int nodes) throws Exception {
+        ManagedUserLoader loader = ManagedUserLoader.forEnvironment(environment, UID_PREFIX);
+        loader.loadWithRest(users);
+        String lbUrl = environment.getServiceUrl(LB_SERVICE_NAME, LB_PORT);
+
+        LoadGenerator.Result reads;
+        LoadGenerator.Result writes;
+        H2SessionSampler sessions = H2SessionSampler.start(environment, sessionSampleInterval, CLUSTER_STATEMENTS);
+        try {
+            reads = LoadGenerator
+                    .forRequests(httpClient, index -> request(lbUrl + "/openidm/managed/user/"
+                            + loader.getUserId(1 + index % users)).build())
+                    .withConcurrency(concurrency)
+                    .withDuration(loadDuration)
+                    .withExpectedStatus(200)
+                    .run();
+            String writePrefix = UID_PREFIX + "w" + ++writeRun + "x";
+            writes = LoadGenerator
+                    .forRequests(httpClient, index -> createUserRequest(lbUrl, HrCsvGenerator.uid(writePrefix, index)))
+                    .withConcurrency(concurrency)
+                    .withDuration(loadDuration)
+                    .withExpectedStatus(201)
+                    .run();
+        } finally {
+            sessions.close();
+        }
+
+        putThroughput(result.putObject("reads"), "reads", reads, nodes);
+        putThroughput(result.putObject("writes"), "writes", writes, nodes);
+        sessions.writeTo(result.putObject("clusterQueries"));
+        assertEquals(0, reads.getErrors(), reads.getFirstError());
+        assertEquals(0, writes.getErrors(), writes.getFirstError());
+    }
+
+    /**
+     * Write throughput and its ratio to the ideal linear scaling of the single node throughput.
+     */
+    private void putThroughput(ObjectNode result, String workload, LoadGenerator.Result load, int nodes) {
+        load.writeTo(result);
+        if (nodes == 1) {
+            singleNodeRates.put(workload, load.getAchievedRate());
+        }
+        Double singleNodeRate = singleNodeRates.get(workload);
+        if (singleNodeRate != null && singleNodeRate > 0) {
+            result.put("scalingEfficiency", load.getAchievedRate() / (nodes * singleNodeRate));
+        }
+    }
+
+    /**
+     * Reconcile all rows into new managed users through the first node. Recon state is kept by the node running it,
+     * so the request cannot go through the load balancer.
+     */
+    private void measureRecon(ObjectNode result) throws Exception {
+        Reconciliation.Result recon = Reconciliation.run(environment, RECON_MAPPING);
+        assertEquals(rows, recon.situationCount("ABSENT"), recon.recon().toString());
+        recon.writeTo(result);
+        result.put("millisPerRow", TimeUnit.NANOSECONDS.toMicros(recon.elapsedNanos()) / 1000.0 / rows);
+    }
+
+    /**
+     * Kill the last node under constant read load, wait for the other nodes to mark it down and restart it.
+     */
+    private void measureFailover(ObjectNode result, int nodes) throws Exception {
+        String lbUrl = environment.getServiceUrl(LB_SERVICE_NAME, LB_PORT);
+        String containerId = environment.getServiceContainer(serviceName(nodes)).getContainerId();
+        ManagedUserLoader loader = ManagedUserLoader.forEnvironment(environment, UID_PREFIX);
+
+        CompletableFuture<LoadGenerator.Result> load = CompletableFuture.supplyAsync(() -> {
+            try {
+                return LoadGenerator
+                        .forRequests(httpClient, index -> request(lbUrl + "/openidm/managed/user/"
+                                + loader.getUserId(1 + index % users)).build())
+                        .withRate(BenchmarkProperties.getInt("benchmark.cluster.failoverRate", 50))
+                        .withDuration(Duration.ofSeconds(
+                                BenchmarkProperties.getInt("benchmark.cluster.failoverSeconds", 60)))
+                        .withExpectedStatus(200)
+                        .run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        TimeUnit.SECONDS.sleep(2);
+        long killNanos = System.nanoTime();
+        ContainerControl.kill(containerId);
+        awaitInstanceState(nodes, state -> "processing-down".equals(state) || "down".equals(state));
+        result.put("detectionMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - killNanos));
+        awaitInstanceState(nodes, "down"::equals);
+        result.put("recoveryMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - killNanos));
+
+        LoadGenerator.Result reads = load.get();
+        reads.writeTo(result.putObject("reads"));
+        result.put("failedRequests", reads.getErrors());
+
+        long startNanos = System.nanoTime();
+        ContainerControl.start(containerId);
+        awaitReady(nodes);
+        awaitInstanceState(nodes, "running"::equals);
+        result.put("rejoinMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Wait until the given node reports {@code ACTIVE_READY}.
+     */
+    private void awaitReady(int node) throws Exception {
+        HttpRequest pingReq = HttpRequest.newBuilder()
+                .uri(URI.create(nodeUrl(node) + "/openidm/info/ping"))
+                .header("Authorization", ANONYMOUS_AUTHORIZATION_HEADER_VALUE)
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        Await.until(serviceName(node) + " ready", () -> {
+                    try {
+                        HttpResponse<String> pingResp = httpClient.send(pingReq,
+                                HttpResponse.BodyHandlers.ofString());
+                        return pingResp.statusCode() == 200
+                                ? mapper.readTree(pingResp.body()).path("state").asString()
+                                : "";
+                    } catch (IOException e) {
+                        // port not bound yet
+                        return "";
+                    }
+                }, "ACTIVE_READY"::equals)
+                .atMost(MAX_NODE_WAIT)
+                .get();
+    }
+
+    /**
+     * Wait until the cluster service of the first node reports the instance of the given node in a matching state
+     * ({@code running}, {@code processing-down} while its jobs are recovered by another node, or {@code down}).
+     */
+    private void awaitInstanceState(int node, Predicate<String> condition) throws Exception {
+        HttpRequest instanceReq = request(environment.getBaseUrl() + "/openidm/cluster/node" + node).build();
+        Await.until("state of cluster instance node" + node, () -> {
+                    HttpResponse<String> instanceResp = httpClient.send(instanceReq,
+                            HttpResponse.BodyHandlers.ofString());
+                    return instanceResp.statusCode() == 200
+                            ? mapper.readTree(instanceResp.body()).path("results").path("state").asString()
+                            : "";
+                }, condition)
+                .atMost(MAX_FAILOVER_WAIT)
+                .withBackoff(Duration.ofMillis(100), Duration.ofMillis(500), 1.5)
+                .get();
+    }
+
+    /**
+     * SQL of the cluster query from {@code repo.jdbc.json} for the first node.
+     */
+    private static String clusterQuerySql(String queryId) {
+        String join = "SELECT obj.fullobject FROM wrenidm.clusterobjects obj"
+                + " INNER JOIN wrenidm.clusterobjectproperties prop ON obj.id = prop.clusterobjects_id";
+        return switch (queryId) {
+            case "query-cluster-instances" -> join + " WHERE prop.propkey = '/type' AND prop.propvalue = 'state'";
+            case "query-cluster-failed-instances" -> join
+                    + " INNER JOIN wrenidm.clusterobjectproperties state ON obj.id = state.clusterobjects_id"
+                    + " WHERE (prop.propkey = '/timestamp' AND prop.propvalue <= '" + System.currentTimeMillis() + "')"
+                    + " AND (state.propkey = '/state' AND (state.propvalue = '1' OR state.propvalue = '2'))";
+            case "query-cluster-events" -> join
+                    + " INNER JOIN wrenidm.clusterobjectproperties instance ON obj.id = instance.clusterobjects_id"
+                    + " WHERE (prop.propkey = '/type' AND prop.propvalue = 'event')"
+                    + " AND (instance.propkey = '/instanceId' AND instance.propvalue = 'node1')";
+            default -> throw new IllegalArgumentException(queryId);
+        };
+    }
+
+    private HttpRequest createUserRequest(String baseUrl, String userName) {
+        ObjectNode user = mapper.createObjectNode();
+        user.put("userName", userName);
+        user.put("givenName", "John");
+        user.put("sn", "Doe");
+        user.put("mail", userName + "@wrensecurity.org");
+        user.put("password", "FooBar123");
+
+        return request(baseUrl + "/openidm/managed/user/" + userName)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(user)))
+                .build();
+    }
+
+    private String nodeUrl(int node) {
+        return node == 1 ? environment.getBaseUrl() : environment.getServiceUrl(serviceName(node), WRENIDM_PORT);
+    }
+
+    private static String serviceName(int node) {
+        return node == 1 ? WRENIDM_CONTAINER_NAME : WRENIDM_CONTAINER_NAME + node;
+    }
+
+    private static HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE);
+    }
+
+}
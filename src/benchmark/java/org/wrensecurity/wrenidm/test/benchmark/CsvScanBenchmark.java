@@ -0,0 +1,172 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.ContainerMemorySampler;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentReset;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.HrCsvGenerator;
+import org.wrensecurity.wrenidm.test.base.QueryResultStream;
+import org.wrensecurity.wrenidm.test.base.Reconciliation;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Scan of large HR files by the CSV connector with memory usage of the Wren:IDM container.
+ *
+ * <p>Files of {@code benchmark.csv.sizesMb} megabytes are read through {@code query-all-ids} and, up to
+ * {@code benchmark.csv.reconMaxMb}, through reconciliation. By default all generated rows are invalid
+ * ({@code benchmark.csv.invalidRatio}), so that reconciliation reads the whole source without creating managed
+ * users. Memory is sampled every {@code benchmark.csv.sampleMillis} milliseconds.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CsvScanBenchmark extends BaseWrenidmTest {
+
+    private static final String RECON_MAPPING = "csvEmployee_managedUser";
+
+    private static final String UID_PREFIX = "csvscan";
+
+    private static final Path DATA_DIR = Path.of("target/benchmark-data/csv").toAbsolutePath();
+
+    private static final List<EnvironmentReset> RESETS = List.of(
+            EnvironmentResets.links(RECON_MAPPING),
+            EnvironmentResets.managedObjects("user"),
+            EnvironmentResets.repoTable("audit/recon"),
+            EnvironmentResets.repoTable("audit/sync"));
+
+    private final BenchmarkReport report = new BenchmarkReport("csv-scan");
+
+    private final long sampleMillis = BenchmarkProperties.getInt("benchmark.csv.sampleMillis", 1000);
+
+    @BeforeAll
+    public void init() throws Exception {
+        // CSV connector needs the source file to exist before it starts
+        generator().generate(DATA_DIR.resolve("hr.csv"), 0);
+
+        EnvironmentSpec spec = EnvironmentSpec.forCase("sync")
+                .withEnv("SYNC_DATA_DIR", DATA_DIR.toString())
+                .withProvisioner("csv");
+        RESETS.forEach(spec::withReset);
+        environment = EnvironmentPool.acquire(spec);
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        report.write();
+        EnvironmentPool.release(environment);
+        // Do not leave gigabytes behind
+        generator().generate(DATA_DIR.resolve("hr.csv"), 0);
+    }
+
+    public List<Integer> fileSizes() {
+        return BenchmarkProperties.getIntList("benchmark.csv.sizesMb", "10,100,1000");
+    }
+
+    @ParameterizedTest(name = "{0} MB")
+    @MethodSource("fileSizes")
+    public void testScan(int sizeMb) throws Exception {
+        for (EnvironmentReset reset : RESETS) {
+            reset.reset(environment);
+        }
+        HrCsvGenerator.Result data = generate(DATA_DIR.resolve("hr.csv"), sizeMb * 1024L * 1024L);
+
+        ObjectNode result = report.addResult();
+        result.put("fileMb", Files.size(data.getFile()) / (1024.0 * 1024.0));
+        result.put("rows", data.getRows());
+        scanQuery(result.putObject("queryAllIds"), data.getRows());
+        if (sizeMb <= BenchmarkProperties.getInt("benchmark.csv.reconMaxMb", 100)) {
+            scanRecon(result.putObject("reconciliation"), data);
+        }
+    }
+
+    private void scanQuery(ObjectNode result, int rows) throws Exception {
+        HttpRequest queryReq = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/system/csv/employee?_queryId=query-all-ids"))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .build();
+        long count;
+        long elapsedNanos;
+        ContainerMemorySampler memory = ContainerMemorySampler.start(environment, WRENIDM_CONTAINER_NAME, sampleMillis);
+        try {
+            long startNanos = System.nanoTime();
+            HttpResponse<QueryResultStream> queryResp = httpClient.send(queryReq,
+                    QueryResultStream.bodyHandler(mapper));
+            try (QueryResultStream results = queryResp.body()) {
+                assertEquals(200, queryResp.statusCode());
+                count = results.stream().count();
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+        } finally {
+            memory.close();
+        }
+        memory.writeTo(result.putObject("memory"));
+        result.put("results", count);
+        result.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        result.put("rowsPerSecond", count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        assertEquals(rows, count);
+    }
+
+    private void scanRecon(ObjectNode result, HrCsvGenerator.Result data) throws Exception {
+        Reconciliation.Result recon;
+        ContainerMemorySampler memory = ContainerMemorySampler.start(environment, WRENIDM_CONTAINER_NAME, sampleMillis);
+        try {
+            recon = Reconciliation.run(environment, RECON_MAPPING);
+        } finally {
+            memory.close();
+        }
+        memory.writeTo(result.putObject("memory"));
+        recon.writeTo(result);
+        result.put("rowsPerSecond", data.getRows() * (double) TimeUnit.SECONDS.toNanos(1) / recon.elapsedNanos());
+        result.set("situationSummary", recon.recon().path("situationSummary"));
+    }
+
+    /**
+     * Generate file of approximately the given size, number of rows is estimated from a small sample.
+     */
+    private HrCsvGenerator.Result generate(Path file, long bytes) throws Exception {
+        int sampleRows = 10000;
+        Path sample = DATA_DIR.resolve("sample.csv");
+        generator().generate(sample, sampleRows);
+        double bytesPerRow = Files.size(sample) / (double) sampleRows;
+        Files.delete(sample);
+        return generator().generate(file, (int) Math.min(Integer.MAX_VALUE, bytes / bytesPerRow));
+    }
+
+    private static HrCsvGenerator generator() {
+        return new HrCsvGenerator(UID_PREFIX)
+                .withInvalidRatio(BenchmarkProperties.getDouble("benchmark.csv.invalidRatio", 1.0))
+                .withExistingRatio(0);
+    }
+
+}
@@ -0,0 +1,329 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import org.wrensecurity.wrenidm.test.base.LoadGenerator;
+import org.wrensecurity.wrenidm.test.base.WrenidmEnvironment;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * High-volume sends through {@code external/email} with delivery to the MailHog stand-in.
+ *
+ * <p>Every message carries its index and send time in the subject, so that delivery time can be computed from
+ * the MailHog receive time and missing messages can be detected. The email service opens a new SMTP connection
+ * for each message; configurations from {@code benchmark.email.configs} are compared (e.g. with disabled wait for
+ * the {@code QUIT} reply) and the possible gain of connection reuse is estimated with a plain SMTP client sending
+ * directly to MailHog.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class EmailBenchmark extends BaseWrenidmTest {
+
+    private static final String SMTP_SERVICE_NAME = "smtp";
+
+    private static final int SMTP_PORT = 1025;
+
+    private static final int SMTP_API_PORT = 8025;
+
+    private static final String DEFAULT_CONFIG = "external.email.json";
+
+    private static final Pattern SUBJECT_PATTERN = Pattern.compile("Email benchmark (\\d+) (\\d+)");
+
+    private static final String EMAIL_DATA = """
+        {
+          "type": "text/plain",
+          "from": "idm@wrensecurity.org",
+          "to": "user%d@wrensecurity.org",
+          "subject": "Email benchmark %d %d",
+          "body": "Benchmark body"
+        }
+        """;
+
+    private final BenchmarkReport report = new BenchmarkReport("email");
+
+    @BeforeAll
+    public void init() throws Exception {
+        environment = acquire(DEFAULT_CONFIG);
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        report.write();
+        EnvironmentPool.release(environment);
+    }
+
+    public List<String> configs() {
+        return BenchmarkProperties.getStringList("benchmark.email.configs", DEFAULT_CONFIG + ",external.email-quitwait.json");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("configs")
+    public void testSendThroughput(String config) throws Exception {
+        WrenidmEnvironment configEnvironment = DEFAULT_CONFIG.equals(config) ? environment : acquire(config);
+        try {
+            int messages = BenchmarkProperties.getInt("benchmark.email.messages", 2000);
+            for (int concurrency : BenchmarkProperties.getIntList("benchmark.email.concurrency", "1,8,32")) {
+                ObjectNode result = report.addResult();
+                result.put("config", config);
+                sendAndCollect(configEnvironment, result, concurrency, messages);
+            }
+        } finally {
+            if (configEnvironment != environment) {
+                EnvironmentPool.release(configEnvironment);
+            }
+        }
+    }
+
+    @Test
+    public void testSmtpConnectionReuse() throws Exception {
+        int messages = BenchmarkProperties.getInt("benchmark.email.smtpMessages", 1000);
+        String host = environment.getContainer().getServiceHost(SMTP_SERVICE_NAME, SMTP_PORT);
+        int port = environment.getContainer().getServicePort(SMTP_SERVICE_NAME, SMTP_PORT);
+        clearInbox(environment);
+
+        LatencyHistogram perMessage = new LatencyHistogram();
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            long sendNanos = System.nanoTime();
+            try (SmtpConnection connection = SmtpConnection.open(host, port)) {
+                connection.send("idm@wrensecurity.org", "user" + i + "@wrensecurity.org", "SMTP connection " + i);
+            }
+            perMessage.record(System.nanoTime() - sendNanos);
+        }
+        long perMessageNanos = System.nanoTime() - startNanos;
+
+        LatencyHistogram reused = new LatencyHistogram();
+        startNanos = System.nanoTime();
+        try (SmtpConnection connection = SmtpConnection.open(host, port)) {
+            for (int i = 0; i < messages; i++) {
+                long sendNanos = System.nanoTime();
+                connection.send("idm@wrensecurity.org", "user" + i + "@wrensecurity.org", "SMTP reuse " + i);
+                reused.record(System.nanoTime() - sendNanos);
+            }
+        }
+        long reusedNanos = System.nanoTime() - startNanos;
+        clearInbox(environment);
+
+        ObjectNode smtp = report.getRoot().putObject("smtpConnectionReuse");
+        smtp.put("messages", messages);
+        perMessage.writeTo(smtp.putObject("connectionPerMessage"))
+                .put("messagesPerSecond", rate(messages, perMessageNanos));
+        reused.writeTo(smtp.putObject("reusedConnection"))
+                .put("messagesPerSecond", rate(messages, reusedNanos));
+    }
+
+    private void sendAndCollect(WrenidmEnvironment target, ObjectNode result, int concurrency, int messages)
+            throws Exception {
+        clearInbox(target);
+        BitSet accepted = new BitSet(messages);
+        HttpRequest.Builder sendReq = HttpRequest.newBuilder()
+                .uri(URI.create(target.getBaseUrl() + "/openidm/external/email?_action=send"))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .header("Content-Type", "application/json");
+        LoadGenerator.Result send = LoadGenerator.forRequests(httpClient, index -> sendReq.copy()
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                EMAIL_DATA.formatted(index, index, System.currentTimeMillis())))
+                        .build())
+                .withConcurrency(concurrency)
+                .withRequests(messages)
+                .withExpectedStatus(200)
+                .withResponseListener((index, response) -> {
+                    if ("OK".equals(mapper.readTree(response.body()).path("status").asString())) {
+                        synchronized (accepted) {
+                            accepted.set(index);
+                        }
+                    }
+                })
+                .run();
+        send.writeTo(result.putObject("send"));
+
+        // Wait until the inbox stops growing
+        Duration quietPeriod = Duration.ofSeconds(BenchmarkProperties.getInt("benchmark.email.quietPeriod", 10));
+        int delivered = 0;
+        long lastChangeNanos = System.nanoTime();
+        while (delivered < accepted.cardinality() && System.nanoTime() - lastChangeNanos < quietPeriod.toNanos()) {
+            TimeUnit.MILLISECONDS.sleep(200);
+            int total = queryInbox(target, 0, 1).path("total").asInt();
+            if (total != delivered) {
+                delivered = total;
+                lastChangeNanos = System.nanoTime();
+            }
+        }
+
+        BitSet received = new BitSet(messages);
+        LatencyHistogram delivery = new LatencyHistogram();
+        int duplicates = 0;
+        int pageSize = 500;
+        for (int start = 0; start < delivered; start += pageSize) {
+            for (JsonNode message : queryInbox(target, start, pageSize).path("items")) {
+                Matcher subject = SUBJECT_PATTERN.matcher(
+                        message.path("Content").path("Headers").path("Subject").path(0).asString());
+                if (!subject.matches()) {
+                    continue;
+                }
+                int index = Integer.parseInt(subject.group(1));
+                if (received.get(index)) {
+                    duplicates++;
+                }
+                received.set(index);
+                long sentMillis = Long.parseLong(subject.group(2));
+                Instant created = Instant.parse(message.path("Created").asString());
+                delivery.record(Math.max(0, created.toEpochMilli() - sentMillis), TimeUnit.MILLISECONDS);
+            }
+        }
+        BitSet dropped = (BitSet) accepted.clone();
+        dropped.andNot(received);
+
+        delivery.writeTo(result.putObject("delivery"));
+        result.put("accepted", accepted.cardinality());
+        result.put("received", received.cardinality());
+        result.put("dropped", dropped.cardinality());
+        result.put("duplicates", duplicates);
+    }
+
+    private WrenidmEnvironment acquire(String config) throws Exception {
+        EnvironmentSpec spec = EnvironmentSpec.forCase("email")
+                .withExposedService(SMTP_SERVICE_NAME, SMTP_PORT)
+                .withExposedService(SMTP_SERVICE_NAME, SMTP_API_PORT)
+                .withReset(EmailBenchmark::clearInbox);
+        if (!DEFAULT_CONFIG.equals(config)) {
+            spec.withEnv("EMAIL_CONFIG", "./conf/" + config);
+        }
+        return EnvironmentPool.acquire(spec);
+    }
+
+    private static JsonNode queryInbox(WrenidmEnvironment target, int start, int limit) throws Exception {
+        HttpRequest inboxReq = HttpRequest.newBuilder()
+                .uri(URI.create(target.getServiceUrl(SMTP_SERVICE_NAME, SMTP_API_PORT)
+                        + "/api/v2/messages?start=" + start + "&limit=" + limit))
+                .build();
+        HttpResponse<String> inboxResp = httpClient.send(inboxReq, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, inboxResp.statusCode());
+        return mapper.readTree(inboxResp.body());
+    }
+
+    private static void clearInbox(WrenidmEnvironment target) throws Exception {
+        HttpRequest deleteReq = HttpRequest.newBuilder()
+                .uri(URI.create(target.getServiceUrl(SMTP_SERVICE_NAME, SMTP_API_PORT) + "/api/v1/messages"))
+                .DELETE()
+                .build();
+        HttpResponse<String> deleteResp = httpClient.send(deleteReq, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, deleteResp.statusCode());
+    }
+
+    private static double rate(int messages, long nanos) {
+        return messages * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    /**
+     * Minimal SMTP client able to send several messages over one connection.
+     */
+    private static final class SmtpConnection implements Closeable {
+
+        private final Socket socket;
+
+        private final BufferedReader reader;
+
+        private final Writer writer;
+
+        private SmtpConnection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            this.writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+        }
+
+        static SmtpConnection open(String host, int port) throws IOException {
+            SmtpConnection connection = new SmtpConnection(new Socket(host, port));
+            try {
+                connection.expect(220);
+                connection.command("HELO benchmark", 250);
+            } catch (IOException e) {
+                connection.socket.close();
+                throw e;
+            }
+            return connection;
+        }
+
+        void send(String from, String to, String subject) throws IOException {
+            command("MAIL FROM:<" + from + ">", 250);
+            command("RCPT TO:<" + to + ">", 250);
+            command("DATA", 354);
+            command("From: " + from + "\r\nTo: " + to + "\r\nSubject: " + subject + "\r\n\r\nBenchmark body\r\n.", 250);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                command("QUIT", 221);
+            } finally {
+                socket.close();
+            }
+        }
+
+        private void command(String line, int expectedCode) throws IOException {
+            writer.write(line + "\r\n");
+            writer.flush();
+            expect(expectedCode);
+        }
+
+        private void expect(int expectedCode) throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("SMTP connection closed");
+                }
+            } while (line.length() > 3 && line.charAt(3) == '-');
+            if (!line.startsWith(Integer.toString(expectedCode))) {
+                throw new IOException("Expected SMTP reply " + expectedCode + ", got: " + line);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.Await;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import org.wrensecurity.wrenidm.test.base.LoadGenerator;
+import org.wrensecurity.wrenidm.test.base.ManagedUserLoader;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Cost of the {@code endpoint/custom} script endpoint compared with the direct managed user query it wraps.
+ *
+ * <p>Cold samples register copies of the endpoint script under new contexts, so that every first call includes
+ * script compilation ({@code benchmark.endpoint.coldSamples}). Steady state is measured for each concurrency
+ * from {@code benchmark.endpoint.concurrency} over {@code benchmark.endpoint.duration} seconds. Script dispatch
+ * is separated from the underlying query with an endpoint returning an empty result without touching the
+ * repository.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class EndpointScriptBenchmark extends BaseBenchmarkTest {
+
+    private static final Path ENDPOINT_SCRIPT = Path.of("src/test/resources/cases/endpoint/script/handle-custom.js");
+
+    private static final String EMPTY_ENDPOINT_SCRIPT = "(function(){ return { result: [] }; })();";
+
+    private static final String EMPTY_ENDPOINT_NAME = "profile-empty";
+
+    private static final String COLD_ENDPOINT_PREFIX = "profile-cold-";
+
+    // User looked up by the custom endpoint script
+    private static final String MANAGED_USER_DATA = """
+        {
+          "userName": "endpoint",
+          "givenName": "John",
+          "sn": "Doe",
+          "mail": "doe@wrensecurity.org",
+          "password":"Password1"
+        }
+        """;
+
+    private final BenchmarkReport report = new BenchmarkReport("endpoint-script");
+
+    private final Map<String, String> targets = new LinkedHashMap<>();
+
+    private final int coldSamples = BenchmarkProperties.getInt("benchmark.endpoint.coldSamples", 5);
+
+    @BeforeAll
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("endpoint")
+                .withReset(EnvironmentResets.managedObjects("user")));
+
+        HttpRequest createUserReq = request("/openidm/managed/user/endpoint")
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(MANAGED_USER_DATA))
+                .build();
+        HttpResponse<String> createUserResp = httpClient.send(createUserReq, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, createUserResp.statusCode(), createUserResp.body());
+
+        // Other users keep the query from running against a trivially small table
+        ManagedUserLoader.Result load = ManagedUserLoader.forEnvironment(environment, "endpointbench")
+                .loadWithRest(BenchmarkProperties.getInt("benchmark.endpoint.users", 1000));
+        load.writeTo(report.getRoot().putObject("load"));
+
+        putEndpoint(EMPTY_ENDPOINT_NAME, EMPTY_ENDPOINT_SCRIPT);
+        awaitFirstCall(endpointPath(EMPTY_ENDPOINT_NAME));
+
+        String queryFilter = encode("/userName eq \"endpoint\"");
+        targets.put("ping", "/openidm/info/ping");
+        targets.put("managedUserQuery", "/openidm/managed/user?_queryFilter=" + queryFilter);
+        targets.put("emptyEndpoint", endpointPath(EMPTY_ENDPOINT_NAME));
+        targets.put("customEndpoint", endpointPath("custom"));
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        try {
+            deleteEndpoint(EMPTY_ENDPOINT_NAME);
+            for (int i = 1; i <= coldSamples; i++) {
+                deleteEndpoint(COLD_ENDPOINT_PREFIX + i);
+            }
+        } finally {
+            report.write();
+            EnvironmentPool.release(environment);
+        }
+    }
+
+    public List<Integer> concurrencyLevels() {
+        return BenchmarkProperties.getIntList("benchmark.endpoint.concurrency", "1,4,16");
+    }
+
+    @Test
+    @Order(1)
+    public void testColdStart() throws Exception {
+        String source = Files.readString(ENDPOINT_SCRIPT);
+        LatencyHistogram firstCall = new LatencyHistogram();
+        LatencyHistogram secondCall = new LatencyHistogram();
+        for (int i = 1; i <= coldSamples; i++) {
+            String name = COLD_ENDPOINT_PREFIX + i;
+            // Distinct source keeps the script engine from reusing a compiled script
+            putEndpoint(name, source + "\n// cold sample " + i + " " + System.nanoTime() + "\n");
+            firstCall.record(awaitFirstCall(endpointPath(name)));
+            secondCall.record(timedCall(endpointPath(name)));
+        }
+
+        ObjectNode cold = report.getRoot().putObject("coldStart");
+        firstCall.writeTo(cold.putObject("firstCall"));
+        secondCall.writeTo(cold.putObject("secondCall"));
+    }
+
+    @ParameterizedTest(name = "concurrency {0}")
+    @MethodSource("concurrencyLevels")
+    @Order(2)
+    public void testSteadyState(int concurrency) throws Exception {
+        Duration duration = Duration.ofSeconds(BenchmarkProperties.getInt("benchmark.endpoint.duration", 30));
+        int warmup = BenchmarkProperties.getInt("benchmark.endpoint.warmup", 200);
+
+        ObjectNode result = report.addResult();
+        result.put("concurrency", concurrency);
+        Map<String, Long> medians = new LinkedHashMap<>();
+        for (Map.Entry<String, String> target : targets.entrySet()) {
+            assertEquals(0, load(target.getValue(), concurrency).withRequests(warmup).run().getErrors());
+            LoadGenerator.Result measured = load(target.getValue(), concurrency).withDuration(duration).run();
+            assertEquals(0, measured.getErrors(), measured.getFirstError());
+            measured.writeTo(result.putObject(target.getKey()));
+            medians.put(target.getKey(), measured.getLatency().getPercentileNanos(50));
+        }
+
+        // Differences of medians, i.e. estimates rather than exact per-request costs
+        ObjectNode breakdown = result.putObject("breakdownMillis");
+        breakdown.put("rest", millis(medians.get("ping")));
+        breakdown.put("scriptDispatch", millis(medians.get("emptyEndpoint") - medians.get("ping")));
+        breakdown.put("query", millis(medians.get("managedUserQuery") - medians.get("ping")));
+        breakdown.put("endpointOverQuery", millis(medians.get("customEndpoint") - medians.get("managedUserQuery")));
+    }
+
+    private LoadGenerator load(String path, int concurrency) {
+        HttpRequest request = request(path).build();
+        return LoadGenerator.forRequests(httpClient, index -> request)
+                .withConcurrency(concurrency)
+                .withExpectedStatus(200);
+    }
+
+    /**
+     * Call a newly registered endpoint until it is routed and return latency of the first routed call.
+     */
+    private long awaitFirstCall(String path) throws Exception {
+        HttpRequest request = request(path).build();
+        TimedResponse first = Await.until("endpoint " + path,
+                        () -> {
+                            long startNanos = System.nanoTime();
+                            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                            return new TimedResponse(response, System.nanoTime() - startNanos);
+                        },
+                        timed -> timed.response().statusCode() != 404)
+                .atMost(Duration.ofSeconds(30))
+                .withBackoff(Duration.ofMillis(10), Duration.ofMillis(100), 1.5)
+                .describedAs(timed -> timed.response().body())
+                .get();
+        assertEquals(200, first.response().statusCode(), first.response().body());
+        return first.nanos();
+    }
+
+    private long timedCall(String path) throws Exception {
+        long startNanos = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request(path).build(), HttpResponse.BodyHandlers.ofString());
+        long elapsedNanos = System.nanoTime() - startNanos;
+        assertEquals(200, response.statusCode(), response.body());
+        return elapsedNanos;
+    }
+
+    private void putEndpoint(String name, String source) throws Exception {
+        ObjectNode config = mapper.createObjectNode();
+        config.put("context", "endpoint/" + name + "/*");
+        config.put("type", "text/javascript");
+        config.put("source", source);
+        HttpResponse<String> response = httpClient.send(request("/openidm/config/endpoint/" + name)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(config)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        // Configuration left over from an interrupted run is updated instead of created
+        assertTrue(response.statusCode() == 201 || response.statusCode() == 200, response.body());
+    }
+
+    private void deleteEndpoint(String name) throws Exception {
+        httpClient.send(request("/openidm/config/endpoint/" + name).DELETE().build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static String endpointPath(String name) {
+        return "/openidm/endpoint/" + name + "/users?_queryId=dummy";
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private record TimedResponse(HttpResponse<String> response, long nanos) {
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.Await;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import org.wrensecurity.wrenidm.test.base.LoadGenerator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Propagation latency of implicit synchronization from {@code managed/user} to LDAP ({@code managedUser_ldapAccount}
+ * mapping) at increasing write rates.
+ *
+ * <p>Managed users are written at a constant arrival rate. Every write is correlated with its {@code audit/sync}
+ * record and with the {@code modifyTimestamp} of the LDAP entry (which has only one second resolution). Latencies are
+ * measured from the intended write time, so a saturated server cannot hide queueing delay. Rates are set with
+ * {@code benchmark.implicitSync.rates}, number of users per rate with {@code benchmark.implicitSync.users}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ImplicitSyncLatencyBenchmark extends BaseWrenidmTest {
+
+    private static final String SYNC_MAPPING = "managedUser_ldapAccount";
+
+    private static final DateTimeFormatter LDAP_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("uuuuMMddHHmmss[.SSS]X");
+
+    private static final int MAX_AUDIT_WAIT_SECONDS = 300;
+
+    // Latency is considered diverged when p99 grows over the factor of the lowest rate p99
+    private static final double DIVERGENCE_FACTOR = BenchmarkProperties.getDouble("benchmark.implicitSync.divergence", 3.0);
+
+    private final BenchmarkReport report = new BenchmarkReport("implicit-sync-latency");
+
+    private long baselineP99Nanos = -1;
+
+    private int maxStableRate;
+
+    private boolean diverged;
+
+    @BeforeAll
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("sync")
+                .withProvisioner("ldap")
+                .withReset(EnvironmentResets.links(SYNC_MAPPING))
+                .withReset(EnvironmentResets.managedObjects("user"))
+                .withReset(EnvironmentResets.systemObjects("ldap", "account"))
+                .withReset(EnvironmentResets.repoTable("audit/sync")));
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        report.getRoot().put("divergenceFactor", DIVERGENCE_FACTOR);
+        report.getRoot().put("maxStableWritesPerSecond", maxStableRate);
+        report.write();
+        EnvironmentPool.release(environment);
+    }
+
+    public List<Integer> writeRates() {
+        return BenchmarkProperties.getIntList("benchmark.implicitSync.rates", "5,10,20,50");
+    }
+
+    @ParameterizedTest(name = "{0} writes/s")
+    @MethodSource("writeRates")
+    public void testPropagationLatency(int rate) throws Exception {
+        int users = BenchmarkProperties.getInt("benchmark.implicitSync.users", 200);
+        String prefix = "synclatency" + rate + "x";
+
+        LoadGenerator.Result writes = LoadGenerator.forRequests(httpClient, index -> createUserRequest(prefix + index))
+                .withRate(rate)
+                .withRequests(users)
+                .withExpectedStatus(201)
+                .run();
+        assertEquals(0, writes.getErrors(), writes.getFirstError());
+
+        LatencyHistogram auditLatency = new LatencyHistogram();
+        for (Map.Entry<String, Instant> audit : queryAuditTimes(prefix, users).entrySet()) {
+            auditLatency.record(Duration.between(intendedTime(writes, prefix, audit.getKey()), audit.getValue()).toNanos());
+        }
+        LatencyHistogram ldapLatency = new LatencyHistogram();
+        for (Map.Entry<String, Instant> entry : queryLdapTimes(prefix).entrySet()) {
+            ldapLatency.record(Duration.between(intendedTime(writes, prefix, entry.getKey()), entry.getValue()).toNanos());
+        }
+
+        double achievedRate = writes.getAchievedRate();
+        long p99Nanos = auditLatency.getPercentileNanos(99);
+        if (baselineP99Nanos < 0) {
+            baselineP99Nanos = p99Nanos;
+        }
+        boolean stable = p99Nanos <= DIVERGENCE_FACTOR * baselineP99Nanos && achievedRate >= 0.9 * rate;
+        diverged |= !stable;
+        if (!diverged) {
+            maxStableRate = rate;
+        }
+
+        ObjectNode result = report.addResult();
+        result.put("targetWritesPerSecond", rate);
+        result.put("achievedWritesPerSecond", achievedRate);
+        result.put("users", users);
+        result.put("stable", stable);
+        writes.getLatency().writeTo(result.putObject("writeLatency"));
+        auditLatency.writeTo(result.putObject("auditPropagationLatency"));
+        ldapLatency.writeTo(result.putObject("ldapPropagationLatency"));
+
+        assertEquals(users, auditLatency.getCount());
+        assertEquals(users, ldapLatency.getCount());
+    }
+
+    private HttpRequest createUserRequest(String userName) {
+        ObjectNode user = mapper.createObjectNode();
+        user.put("userName", userName);
+        user.put("givenName", "John");
+        user.put("sn", "Doe");
+        user.put("mail", userName + "@wrensecurity.org");
+        user.put("password", "FooBar123");
+
+        return HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user/" + userName))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(user)))
+                .build();
+    }
+
+    private static Instant intendedTime(LoadGenerator.Result writes, String prefix, String userName) {
+        return writes.getIntendedTime(Integer.parseInt(userName.substring(prefix.length())));
+    }
+
+    /**
+     * Wait for successful sync audit records of all users and return the earliest record time per user name.
+     */
+    private Map<String, Instant> queryAuditTimes(String prefix, int users) throws Exception {
+        String filter = "/mapping eq \"" + SYNC_MAPPING + "\" and "
+                + "/sourceObjectId sw \"managed/user/" + prefix + "\" and "
+                + "/status eq \"SUCCESS\"";
+        HttpRequest req = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/audit/sync?_queryFilter="
+                        + URLEncoder.encode(filter, StandardCharsets.UTF_8) + "&_fields=sourceObjectId,timestamp"))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .build();
+        JsonNode body = Await.until("sync audit records of " + users + " users",
+                        () -> mapper.readTree(httpClient.send(req, HttpResponse.BodyHandlers.ofString()).body()),
+                        response -> response.path("resultCount").asInt() >= users)
+                .atMost(Duration.ofSeconds(MAX_AUDIT_WAIT_SECONDS))
+                .describedAs(response -> "resultCount=" + response.path("resultCount").asInt())
+                .get();
+
+        Map<String, Instant> times = new HashMap<>();
+        for (JsonNode record : body.path("result")) {
+            String userName = record.path("sourceObjectId").asString().substring("managed/user/".length());
+            times.merge(userName, Instant.parse(record.path("timestamp").asString()),
+                    (first, second) -> first.isBefore(second) ? first : second);
+        }
+        return times;
+    }
+
+    /**
+     * Last modification time of LDAP entries per user name.
+     */
+    private Map<String, Instant> queryLdapTimes(String prefix) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/system/ldap/account?_queryFilter="
+                        + URLEncoder.encode("uid sw \"" + prefix + "\"", StandardCharsets.UTF_8)
+                        + "&_fields=uid,modifyTimestamp"))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .build();
+        HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, resp.statusCode());
+
+        Map<String, Instant> times = new HashMap<>();
+        for (JsonNode entry : mapper.readTree(resp.body()).path("result")) {
+            times.put(entry.path("uid").asString(),
+                    OffsetDateTime.parse(entry.path("modifyTimestamp").asString(), LDAP_TIMESTAMP_FORMAT).toInstant());
+        }
+        return times;
+    }
+
+}
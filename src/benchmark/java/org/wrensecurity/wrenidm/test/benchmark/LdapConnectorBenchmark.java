@@ -0,0 +1,264 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.Await;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.HrCsvGenerator;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import org.wrensecurity.wrenidm.test.base.LdapShell;
+import org.wrensecurity.wrenidm.test.base.LoadGenerator;
+import org.wrensecurity.wrenidm.test.base.PagedQuery;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Throughput of {@code system/ldap/account} operations against the OpenLDAP stand-in.
+ *
+ * <p>Create, read, update and search operations are measured for every connector pool size from
+ * {@code benchmark.ldap.poolSizes} (applied to {@code poolConfigOption} through the configuration endpoint) with
+ * {@code benchmark.ldap.concurrency} concurrent clients. Latency of {@code query-all-ids} is measured over directory
+ * sizes from {@code benchmark.ldap.sizes}; the directory is filled with {@code ldapadd} inside the LDAP container.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class LdapConnectorBenchmark extends BaseBenchmarkTest {
+
+    private static final String CONFIG_PATH = "/openidm/config/provisioner.openicf/ldap";
+
+    private static final String ACCOUNT_PATH = "/openidm/system/ldap/account";
+
+    // Accounts created through the connector
+    private static final String CRUD_PREFIX = "ldapcrud";
+
+    // Accounts loaded directly to the directory
+    private static final String BULK_PREFIX = "ldapbulk";
+
+    private static final String ACCOUNT_DATA = """
+        {
+          "dn": "%s",
+          "uid": "%s",
+          "cn": "%s",
+          "sn": "Doe",
+          "givenName": "John",
+          "mail": "%s@wrensecurity.org"
+        }
+        """;
+
+    private static final String UPDATE_DATA = """
+        [
+          { "operation": "replace", "field": "/description", "value": "Updated %d" }
+        ]
+        """;
+
+    private final BenchmarkReport report = new BenchmarkReport("ldap-connector");
+
+    private LdapShell ldap;
+
+    private JsonNode originalConfig;
+
+    private int poolSize;
+
+    private int bulkAccounts;
+
+    @BeforeAll
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("provisioner")
+                .withProvisioner("ldap")
+                .withExposedService(LdapShell.SERVICE_NAME, LdapShell.LDAP_PORT));
+        ldap = new LdapShell(environment);
+        ldap.deleteAccounts(CRUD_PREFIX);
+        ldap.deleteAccounts(BULK_PREFIX);
+
+        HttpResponse<String> configResp = httpClient.send(request(CONFIG_PATH).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, configResp.statusCode(), configResp.body());
+        originalConfig = mapper.readTree(configResp.body());
+        poolSize = originalConfig.path("poolConfigOption").path("maxObjects").asInt();
+        report.getRoot().put("concurrency", concurrency());
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        try {
+            if (originalConfig != null) {
+                applyConfig(originalConfig);
+                ldap.deleteAccounts(CRUD_PREFIX);
+                ldap.deleteAccounts(BULK_PREFIX);
+            }
+        } finally {
+            report.write();
+            EnvironmentPool.release(environment);
+        }
+    }
+
+    public List<Integer> poolSizes() {
+        return BenchmarkProperties.getIntList("benchmark.ldap.poolSizes", "1,10,32");
+    }
+
+    public List<Integer> directorySizes() {
+        return BenchmarkProperties.getIntList("benchmark.ldap.sizes", "1000,10000,50000");
+    }
+
+    @ParameterizedTest(name = "pool {0}")
+    @MethodSource("poolSizes")
+    @Order(1)
+    public void testOperations(int maxObjects) throws Exception {
+        configurePool(maxObjects);
+        ldap.deleteAccounts(CRUD_PREFIX);
+        int operations = BenchmarkProperties.getInt("benchmark.ldap.operations", 2000);
+
+        ObjectNode result = report.addResult();
+        result.put("poolMaxObjects", maxObjects);
+        run(result, "create", operations, 201, index -> request(ACCOUNT_PATH + "?_action=create")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ACCOUNT_DATA.formatted(
+                        LdapShell.accountDn(uid(index)), uid(index), uid(index), uid(index))))
+                .build());
+        run(result, "read", operations, 200, index -> request(accountPath(index)).build());
+        run(result, "update", operations, 200, index -> request(accountPath(index))
+                .header("Content-Type", "application/json")
+                .header("If-Match", "*")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(UPDATE_DATA.formatted(index)))
+                .build());
+        run(result, "search", operations, 200, index -> request(ACCOUNT_PATH + "?_queryFilter="
+                + encode("uid eq \"" + uid(index) + "\"")).build());
+    }
+
+    @ParameterizedTest(name = "{0} accounts")
+    @MethodSource("directorySizes")
+    @Order(2)
+    public void testQueryAllIds(int size) throws Exception {
+        configurePool(originalConfig.path("poolConfigOption").path("maxObjects").asInt());
+        ldap.deleteAccounts(CRUD_PREFIX);
+        if (size > bulkAccounts) {
+            ldap.addAccounts(BULK_PREFIX, bulkAccounts + 1, size);
+            bulkAccounts = size;
+        }
+        int directorySize = ldap.countAccounts(BULK_PREFIX);
+        assertEquals(size, directorySize);
+
+        LatencyHistogram queryAll = new LatencyHistogram();
+        LatencyHistogram pagedScan = new LatencyHistogram();
+        for (int i = 0; i < BenchmarkProperties.getInt("benchmark.ldap.queryRepeats", 5); i++) {
+            long startNanos = System.nanoTime();
+            HttpResponse<String> queryResp = httpClient.send(request(ACCOUNT_PATH + "?_queryId=query-all-ids").build(),
+                    HttpResponse.BodyHandlers.ofString());
+            queryAll.record(System.nanoTime() - startNanos);
+            assertEquals(200, queryResp.statusCode());
+            assertTrue(mapper.readTree(queryResp.body()).path("resultCount").asInt() >= size);
+
+            startNanos = System.nanoTime();
+            long count = PagedQuery.over(httpClient, mapper, uri -> HttpRequest.newBuilder(uri)
+                                    .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                                    .build(),
+                            environment.getBaseUrl() + ACCOUNT_PATH + "?_queryId=query-all-ids")
+                    .withPageSize(BenchmarkProperties.getInt("benchmark.ldap.pageSize", 1000))
+                    .withCookies()
+                    .stream()
+                    .count();
+            pagedScan.record(System.nanoTime() - startNanos);
+            assertTrue(count >= size);
+        }
+
+        ObjectNode result = report.addResult();
+        result.put("directorySize", size);
+        queryAll.writeTo(result.putObject("queryAllIds"));
+        pagedScan.writeTo(result.putObject("pagedQueryAllIds"));
+    }
+
+    private void run(ObjectNode result, String operation, int operations, int expectedStatus,
+            IntFunction<HttpRequest> requests) throws Exception {
+        LoadGenerator.Result load = LoadGenerator.forRequests(httpClient, requests)
+                .withConcurrency(concurrency())
+                .withRequests(operations)
+                .withExpectedStatus(expectedStatus)
+                .run();
+        assertEquals(0, load.getErrors(), load.getFirstError());
+        load.writeTo(result.putObject(operation));
+    }
+
+    /**
+     * Change size of the connector pool, the connector is reinitialized with the new configuration.
+     */
+    private void configurePool(int maxObjects) throws Exception {
+        if (maxObjects == poolSize) {
+            return;
+        }
+        ObjectNode config = originalConfig.deepCopy();
+        ObjectNode pool = (ObjectNode) config.path("poolConfigOption");
+        pool.put("maxObjects", maxObjects);
+        pool.put("maxIdle", maxObjects);
+        pool.put("minIdle", Math.min(pool.path("minIdle").asInt(), maxObjects));
+        applyConfig(config);
+        poolSize = maxObjects;
+    }
+
+    private void applyConfig(JsonNode config) throws Exception {
+        ObjectNode body = config.deepCopy();
+        body.remove("_id");
+        HttpResponse<String> configResp = httpClient.send(request(CONFIG_PATH)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, configResp.statusCode(), configResp.body());
+
+        HttpRequest testReq = request("/openidm/system/ldap?_action=test")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+        Await.until("LDAP connector after configuration change",
+                        () -> httpClient.send(testReq, HttpResponse.BodyHandlers.ofString()),
+                        response -> response.statusCode() == 200
+                                && mapper.readTree(response.body()).path("ok").asBoolean())
+                .atMost(Duration.ofSeconds(MAX_PROVISIONER_WAIT_SECONDS))
+                .describedAs(HttpResponse::body)
+                .get();
+    }
+
+    private static String uid(int index) {
+        return HrCsvGenerator.uid(CRUD_PREFIX, index + 1);
+    }
+
+    private static String accountPath(int index) {
+        return ACCOUNT_PATH + "/" + encode(LdapShell.accountDn(uid(index)));
+    }
+
+    private static int concurrency() {
+        return BenchmarkProperties.getInt("benchmark.ldap.concurrency", 16);
+    }
+
+}
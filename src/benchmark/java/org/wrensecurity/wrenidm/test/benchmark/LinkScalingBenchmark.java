@@ -0,0 +1,204 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentReset;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.H2Shell;
+import org.wrensecurity.wrenidm.test.base.HrCsvGenerator;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import org.wrensecurity.wrenidm.test.base.ManagedUserLoader;
+import org.wrensecurity.wrenidm.test.base.Reconciliation;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Reconciliation correlation cost and link lookup latency over a growing {@code links} table.
+ *
+ * <p>The table is filled with generated links of {@code benchmark.links.mappings} other mappings up to
+ * {@code benchmark.links.sizes}. For every size, {@code csvEmployee_managedUser} reconciles
+ * {@code benchmark.links.rows} HR rows twice against existing managed users - first without links (every row goes
+ * through the correlation query, {@code FOUND}) and then with the links created by the first run
+ * ({@code CONFIRMED}).
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LinkScalingBenchmark extends BaseBenchmarkTest {
+
+    private static final String RECON_MAPPING = "csvEmployee_managedUser";
+
+    private static final String UID_PREFIX = "links";
+
+    private static final String LINK_TYPE_PREFIX = "linkBench";
+
+    private static final Path DATA_DIR = Path.of("target/benchmark-data/links").toAbsolutePath();
+
+    private static final List<EnvironmentReset> RESETS = List.of(
+            EnvironmentResets.links(RECON_MAPPING),
+            EnvironmentResets.managedObjects("user"),
+            EnvironmentResets.repoTable("audit/recon"),
+            EnvironmentResets.repoTable("audit/sync"));
+
+    private final BenchmarkReport report = new BenchmarkReport("link-scaling");
+
+    private final Random random = new Random(42);
+
+    private final int mappings = BenchmarkProperties.getInt("benchmark.links.mappings", 10);
+
+    private final int rows = BenchmarkProperties.getInt("benchmark.links.rows", 2000);
+
+    private H2Shell h2;
+
+    private int generatedLinks;
+
+    @BeforeAll
+    public void init() throws Exception {
+        new HrCsvGenerator(UID_PREFIX)
+                .withInvalidRatio(0)
+                .withExistingRatio(0)
+                .generate(DATA_DIR.resolve("hr.csv"), rows);
+
+        EnvironmentSpec spec = EnvironmentSpec.forCase("sync")
+                .withEnv("SYNC_DATA_DIR", DATA_DIR.toString())
+                .withExposedService(H2Shell.SERVICE_NAME, H2Shell.TCP_PORT)
+                .withProvisioner("csv");
+        RESETS.forEach(spec::withReset);
+        environment = EnvironmentPool.acquire(spec);
+        h2 = new H2Shell(environment);
+        h2.execute("DELETE FROM wrenidm.links WHERE linktype LIKE '" + LINK_TYPE_PREFIX + "%'");
+
+        ManagedUserLoader.Result load = ManagedUserLoader.forEnvironment(environment, UID_PREFIX)
+                .withMaxInFlight(BenchmarkProperties.getInt("benchmark.links.loadConcurrency", 16))
+                .loadWithRest(rows);
+        load.writeTo(report.getRoot().putObject("load"));
+        report.getRoot().put("rows", rows);
+        report.getRoot().put("otherMappings", mappings);
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        try {
+            h2.execute("DELETE FROM wrenidm.links WHERE linktype LIKE '" + LINK_TYPE_PREFIX + "%'");
+            for (EnvironmentReset reset : RESETS) {
+                reset.reset(environment);
+            }
+        } finally {
+            report.write();
+            EnvironmentPool.release(environment);
+        }
+    }
+
+    public List<Integer> linkCounts() {
+        return BenchmarkProperties.getIntList("benchmark.links.sizes", "100000,1000000");
+    }
+
+    @ParameterizedTest(name = "{0} links")
+    @MethodSource("linkCounts")
+    public void testCorrelation(int links) throws Exception {
+        if (links > generatedLinks) {
+            generateLinks(generatedLinks + 1, links);
+            generatedLinks = links;
+        }
+        EnvironmentResets.links(RECON_MAPPING).reset(environment);
+
+        ObjectNode result = report.addResult();
+        result.put("links", h2.queryLong("SELECT COUNT(*) FROM wrenidm.links"));
+        Reconciliation.Result correlated = recon(result.putObject("correlationQuery"));
+        assertEquals(rows, correlated.situationCount("FOUND"), correlated.recon().toString());
+        Reconciliation.Result confirmed = recon(result.putObject("linked"));
+        assertEquals(rows, confirmed.situationCount("CONFIRMED"), confirmed.recon().toString());
+
+        int otherLinks = Math.max(1, links / mappings);
+        List<Lookup> lookups = List.of(
+                new Lookup("links-for-firstId " + RECON_MAPPING,
+                        index -> "/openidm/repo/link?_queryId=links-for-firstId&linkType=" + RECON_MAPPING
+                                + "&firstId=" + HrCsvGenerator.uid(UID_PREFIX, 1 + index % rows),
+                        index -> "SELECT * FROM wrenidm.links WHERE linktype = '" + RECON_MAPPING
+                                + "' AND firstid = '" + HrCsvGenerator.uid(UID_PREFIX, 1 + index % rows) + "'"),
+                new Lookup("links-for-firstId other mapping",
+                        index -> "/openidm/repo/link?_queryId=links-for-firstId&linkType=" + linkType(index)
+                                + "&firstId=" + firstId(index),
+                        index -> "SELECT * FROM wrenidm.links WHERE linktype = '" + linkType(index)
+                                + "' AND firstid = '" + firstId(index) + "'"),
+                new Lookup("links-for-linkType " + RECON_MAPPING,
+                        index -> "/openidm/repo/link?_queryId=links-for-linkType&linkType=" + RECON_MAPPING,
+                        index -> "SELECT * FROM wrenidm.links WHERE linktype = '" + RECON_MAPPING + "'"));
+        ObjectNode lookupResults = result.putObject("lookups");
+        int repeats = BenchmarkProperties.getInt("benchmark.links.lookups", 50);
+        for (Lookup lookup : lookups) {
+            LatencyHistogram latency = new LatencyHistogram();
+            for (int i = 0; i < repeats; i++) {
+                int index = 1 + random.nextInt(Math.max(rows, generatedLinks));
+                HttpRequest req = request(lookup.path().apply(index)).build();
+                long startNanos = System.nanoTime();
+                HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
+                latency.record(System.nanoTime() - startNanos);
+                assertEquals(200, resp.statusCode(), resp.body());
+            }
+            H2Shell.Plan plan = h2.explainAnalyze(lookup.sql().apply(1 + random.nextInt(generatedLinks)));
+            ObjectNode lookupResult = latency.writeTo(lookupResults.putObject(lookup.name()));
+            lookupResult.put("scanCount", plan.scanCount());
+            lookupResult.put("tableScan", plan.tableScan());
+        }
+        result.put("linksPerOtherMapping", otherLinks);
+    }
+
+    /**
+     * Run reconciliation and write its duration and per-row cost.
+     */
+    private Reconciliation.Result recon(ObjectNode result) throws Exception {
+        Reconciliation.Result recon = Reconciliation.run(environment, RECON_MAPPING);
+        recon.writeTo(result);
+        result.put("millisPerRow", TimeUnit.NANOSECONDS.toMicros(recon.elapsedNanos()) / 1000.0 / rows);
+        result.set("situationSummary", recon.recon().path("situationSummary"));
+        return recon;
+    }
+
+    /**
+     * Insert links of other mappings with the given indexes directly to the database.
+     */
+    private void generateLinks(int from, int to) throws Exception {
+        h2.insertRange(from, to, range -> "INSERT INTO wrenidm.links "
+                + "(objectid, rev, linktype, linkqualifier, firstid, secondid) "
+                + "SELECT '" + LINK_TYPE_PREFIX + "-' || X, '0', '" + LINK_TYPE_PREFIX + "' || MOD(X, " + mappings + "), "
+                + "'default', 'first' || X, 'second' || X "
+                + "FROM " + range);
+    }
+
+    private String linkType(int index) {
+        return LINK_TYPE_PREFIX + index % mappings;
+    }
+
+    private static String firstId(int index) {
+        return "first" + index;
+    }
+
+}
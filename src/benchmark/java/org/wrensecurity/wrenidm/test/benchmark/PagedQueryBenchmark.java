@@ -0,0 +1,140 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.ManagedUserLoader;
+import org.wrensecurity.wrenidm.test.base.PagedQuery;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Paging through a large {@code managedobjects} table with offset paging of the ROWNUM based {@code query-all-ids}
+ * query, offset paging of a query filter and cookie paging of a query filter.
+ *
+ * <p>Page latency is reported by the offset depth, which shows how the cost of a page grows with its offset.
+ * Number of users is set with {@code benchmark.paging.users}, page size with {@code benchmark.paging.pageSize}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PagedQueryBenchmark extends BaseWrenidmTest {
+
+    private static final String USER_PREFIX = "page";
+
+    private static final int DEPTH_BUCKETS = 10;
+
+    private final int users = BenchmarkProperties.getInt("benchmark.paging.users", 20000);
+
+    private final int pageSize = BenchmarkProperties.getInt("benchmark.paging.pageSize", 500);
+
+    private final BenchmarkReport report = new BenchmarkReport("paged-query");
+
+    @BeforeAll
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("sync")
+                .withReset(EnvironmentResets.managedObjects("user")));
+
+        ManagedUserLoader.Result load = ManagedUserLoader.forEnvironment(environment, USER_PREFIX)
+                .withMaxInFlight(BenchmarkProperties.getInt("benchmark.paging.loadConcurrency", 16))
+                .loadWithRest(users);
+        load.writeTo(report.getRoot().putObject("load"));
+
+        report.getRoot().put("users", users);
+        report.getRoot().put("pageSize", pageSize);
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        report.write();
+        EnvironmentPool.release(environment);
+    }
+
+    @Test
+    public void testOffsetPagingQueryId() throws Exception {
+        runQuery("offset query-all-ids", "_queryId=query-all-ids", false);
+    }
+
+    @Test
+    public void testOffsetPagingQueryFilter() throws Exception {
+        runQuery("offset query filter", "_queryFilter=true&_fields=_id", false);
+    }
+
+    @Test
+    public void testCookiePagingQueryFilter() throws Exception {
+        runQuery("cookie query filter", "_queryFilter=true&_fields=_id", true);
+    }
+
+    private void runQuery(String name, String query, boolean cookies) throws Exception {
+        PagedQuery pagedQuery = PagedQuery.over(httpClient, mapper, this::queryRequest,
+                        environment.getBaseUrl() + "/openidm/managed/user?" + query)
+                .withPageSize(pageSize);
+        if (cookies) {
+            pagedQuery.withCookies();
+        }
+
+        long startNanos = System.nanoTime();
+        long count = pagedQuery.stream().count();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        List<PagedQuery.Page> pages = pagedQuery.getPages();
+        ObjectNode result = report.addResult();
+        result.put("scenario", name);
+        result.put("mode", pagedQuery.getMode().name());
+        result.put("results", count);
+        result.put("pages", pages.size());
+        result.put("durationMillis", elapsedMillis);
+        result.put("objectsPerSecond", elapsedMillis > 0 ? count * 1000.0 / elapsedMillis : 0);
+        pagedQuery.getPageLatency().writeTo(result.putObject("pageLatency"));
+        writeDepthProfile(pages, result.putArray("depthProfile"));
+
+        assertEquals(users, count);
+    }
+
+    /**
+     * Mean page latency in equally sized ranges of page offsets.
+     */
+    private void writeDepthProfile(List<PagedQuery.Page> pages, ArrayNode profile) {
+        int bucketSize = Math.max(1, (pages.size() + DEPTH_BUCKETS - 1) / DEPTH_BUCKETS);
+        for (int from = 0; from < pages.size(); from += bucketSize) {
+            List<PagedQuery.Page> bucket = pages.subList(from, Math.min(pages.size(), from + bucketSize));
+            ObjectNode entry = profile.addObject();
+            entry.put("fromOffset", bucket.get(0).offset());
+            entry.put("meanPageMillis", bucket.stream().mapToLong(PagedQuery.Page::latencyNanos).average().orElse(0)
+                    / TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private HttpRequest queryRequest(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .build();
+    }
+
+}
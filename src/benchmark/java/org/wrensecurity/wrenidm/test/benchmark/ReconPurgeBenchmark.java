@@ -0,0 +1,409 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.wrensecurity.wrenidm.test.base.Await;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentReset;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.H2Shell;
+import org.wrensecurity.wrenidm.test.base.H2SessionSampler;
+import org.wrensecurity.wrenidm.test.base.HrCsvGenerator;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Cost of the reconciliation audit retention commands of {@code repo.jdbc.json} with concurrent load.
+ *
+ * <p>History of {@code benchmark.purge.recons} reconciliations over {@code benchmark.purge.rows} HR rows is built
+ * first. Then {@code purge-by-recon-expired} (removing the older half of the history) and
+ * {@code purge-by-recon-ids-to-keep} (keeping {@code benchmark.purge.keep} newest reconciliations) are executed while
+ * a reconciliation runs and REST probes read a managed user and the reconciliation audit. Probe latencies are split
+ * into samples taken during the purge and outside of it. Sessions blocked by locks are sampled from H2 every
+ * {@code benchmark.purge.sessionSampleMillis} during the purge.
+ *
+ * <p>Reconciliation audit is written to the repository only by the repository audit event handler, which is enabled
+ * for the benchmark and restored to the original audit configuration afterwards.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ReconPurgeBenchmark extends BaseBenchmarkTest {
+
+    private static final String RECON_MAPPING = "csvEmployee_managedUser";
+
+    private static final String UID_PREFIX = "purge";
+
+    private static final Path DATA_DIR = Path.of("target/benchmark-data/purge").toAbsolutePath();
+
+    private static final String MAPPING_PARAMETERS = "&includeMapping=%25&excludeMapping=";
+
+    private static final String AUDIT_CONFIG_PATH = "/openidm/config/audit";
+
+    private static final String REPO_HANDLER_CLASS = "org.forgerock.openidm.audit.impl.RepositoryAuditEventHandler";
+
+    private static final String COUNT_ACCESS_ROWS = "SELECT COUNT(*) FROM wrenidm.auditaccess";
+
+    private static final int MAX_CONFIG_WAIT_SECONDS = 30;
+
+    private static final List<EnvironmentReset> RESETS = List.of(
+            EnvironmentResets.links(RECON_MAPPING),
+            EnvironmentResets.managedObjects("user"),
+            EnvironmentResets.repoTable("audit/recon"),
+            EnvironmentResets.repoTable("audit/sync"));
+
+    private final BenchmarkReport report = new BenchmarkReport("recon-purge");
+
+    private final LatencyHistogram reconDuration = new LatencyHistogram();
+
+    private H2Shell h2;
+
+    private JsonNode originalAuditConfig;
+
+    @BeforeAll
+    public void init() throws Exception {
+        new HrCsvGenerator(UID_PREFIX)
+                .withInvalidRatio(0)
+                .withExistingRatio(0)
+                .generate(DATA_DIR.resolve("hr.csv"), BenchmarkProperties.getInt("benchmark.purge.rows", 500));
+
+        EnvironmentSpec spec = EnvironmentSpec.forCase("sync")
+                .withEnv("SYNC_DATA_DIR", DATA_DIR.toString())
+                .withExposedService(H2Shell.SERVICE_NAME, H2Shell.TCP_PORT)
+                .withProvisioner("csv");
+        RESETS.forEach(spec::withReset);
+        environment = EnvironmentPool.acquire(spec);
+        h2 = new H2Shell(environment);
+
+        HttpResponse<String> configResp = httpClient.send(request(AUDIT_CONFIG_PATH).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, configResp.statusCode(), configResp.body());
+        originalAuditConfig = mapper.readTree(configResp.body());
+        enableRepoHandler();
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        try {
+            if (originalAuditConfig != null) {
+                putAuditConfig(originalAuditConfig);
+            }
+            for (EnvironmentReset reset : RESETS) {
+                reset.reset(environment);
+            }
+        } finally {
+            report.write();
+            EnvironmentPool.release(environment);
+        }
+    }
+
+    @Test
+    @Order(1)
+    public void testBuildHistory() throws Exception {
+        int recons = BenchmarkProperties.getInt("benchmark.purge.recons", 200);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < recons; i++) {
+            reconDuration.record(awaitRecon(startRecon()), TimeUnit.MILLISECONDS);
+        }
+
+        ObjectNode history = report.getRoot().putObject("history");
+        history.put("recons", recons);
+        history.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        history.put("auditReconRows", h2.queryLong("SELECT COUNT(*) FROM wrenidm.auditrecon"));
+        reconDuration.writeTo(history.putObject("reconDuration"));
+        int summaries = getRecons().size();
+        history.put("reconSummaries", summaries);
+        assertTrue(summaries >= recons, "Expected at least " + recons + " reconciliation summaries, found "
+                + summaries);
+    }
+
+    @Test
+    @Order(2)
+    public void testGetRecons() throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        for (int i = 0; i < BenchmarkProperties.getInt("benchmark.purge.queryRepeats", 20); i++) {
+            long startNanos = System.nanoTime();
+            getRecons();
+            latency.record(System.nanoTime() - startNanos);
+        }
+        latency.writeTo(report.getRoot().putObject("getRecons"));
+    }
+
+    @Test
+    @Order(3)
+    public void testPurgeExpired() throws Exception {
+        List<JsonNode> recons = getRecons();
+        // Recons are ordered from the newest, keep the newer half
+        String timestamp = recons.get(recons.size() / 2).path("activitydate").asString();
+        purge("purge-by-recon-expired", "&timestamp=" + encode(timestamp));
+    }
+
+    @Test
+    @Order(4)
+    public void testPurgeByIdsToKeep() throws Exception {
+        String reconIds = getRecons().stream()
+                .limit(BenchmarkProperties.getInt("benchmark.purge.keep", 20))
+                .map(recon -> recon.path("reconid").asString())
+                .collect(Collectors.joining(","));
+        purge("purge-by-recon-ids-to-keep", "&reconIds=" + encode(reconIds));
+    }
+
+    /**
+     * Execute purge command while a reconciliation and REST probes run.
+     */
+    private void purge(String commandId, String parameters) throws Exception {
+        long rowsBefore = h2.queryLong("SELECT COUNT(*) FROM wrenidm.auditrecon");
+        String userPath = "/openidm/managed/user/" + HrCsvGenerator.uid(UID_PREFIX, 1);
+        String auditPath = "/openidm/audit/recon?_queryFilter=" + encode("/entryType eq \"summary\"") + "&_pageSize=10";
+        Duration settle = Duration.ofSeconds(BenchmarkProperties.getInt("benchmark.purge.settleSeconds", 5));
+        Duration sampleInterval = Duration.ofMillis(
+                BenchmarkProperties.getInt("benchmark.purge.sessionSampleMillis", 200));
+
+        List<LatencyProbe> probes = List.of(new LatencyProbe("managedUserRead", userPath),
+                new LatencyProbe("reconAuditQuery", auditPath));
+        probes.forEach(LatencyProbe::start);
+        TimeUnit.MILLISECONDS.sleep(settle.toMillis());
+
+        String reconId = startRecon();
+        H2SessionSampler sessions = H2SessionSampler.start(environment, sampleInterval);
+        long purgeStartNanos = System.nanoTime();
+        HttpResponse<String> purgeResp;
+        try {
+            purgeResp = httpClient.send(request("/openidm/repo/audit/recon?_action=command&commandId="
+                            + commandId + MAPPING_PARAMETERS + parameters)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } finally {
+            sessions.close();
+        }
+        long purgeEndNanos = System.nanoTime();
+        assertEquals(200, purgeResp.statusCode(), purgeResp.body());
+        long concurrentReconMillis = awaitRecon(reconId);
+
+        TimeUnit.MILLISECONDS.sleep(settle.toMillis());
+        probes.forEach(LatencyProbe::stop);
+
+        ObjectNode result = report.addResult();
+        result.put("command", commandId);
+        result.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(purgeEndNanos - purgeStartNanos));
+        result.put("rowsBefore", rowsBefore);
+        result.put("rowsAfter", h2.queryLong("SELECT COUNT(*) FROM wrenidm.auditrecon"));
+        sessions.writeTo(result.putObject("sessions"));
+        result.put("concurrentReconMillis", concurrentReconMillis);
+        result.put("baselineReconP50Millis", reconDuration.getPercentileNanos(50) / 1e6);
+        for (LatencyProbe probe : probes) {
+            ObjectNode probeResult = result.putObject(probe.name);
+            probe.histogram(purgeStartNanos, purgeEndNanos, true).writeTo(probeResult.putObject("duringPurge"));
+            probe.histogram(purgeStartNanos, purgeEndNanos, false).writeTo(probeResult.putObject("outsidePurge"));
+            probeResult.put("errors", probe.errors);
+        }
+    }
+
+    /**
+     * Enable the repository audit event handler (adding it when missing) for reconciliation and access events and
+     * wait until a probe request is audited to the repository.
+     */
+    private void enableRepoHandler() throws Exception {
+        ObjectNode config = originalAuditConfig.deepCopy();
+        ObjectNode handlerConfig = null;
+        for (JsonNode handler : config.path("eventHandlers")) {
+            if (REPO_HANDLER_CLASS.equals(handler.path("class").asString())) {
+                handlerConfig = (ObjectNode) handler.path("config");
+            }
+        }
+        if (handlerConfig == null) {
+            handlerConfig = ((ArrayNode) config.path("eventHandlers")).addObject()
+                    .put("class", REPO_HANDLER_CLASS)
+                    .putObject("config")
+                    .put("name", "repo");
+        }
+        handlerConfig.put("enabled", true);
+        ArrayNode topics = handlerConfig.putArray("topics");
+        List.of("access", "recon", "sync").forEach(topics::add);
+        putAuditConfig(config);
+
+        // Audit service is reconfigured asynchronously
+        long[] accessRows = { h2.queryLong(COUNT_ACCESS_ROWS) };
+        Await.until("repository audit event handler", () -> {
+                    HttpResponse<String> pingResp = httpClient.send(request("/openidm/info/ping").build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    assertEquals(200, pingResp.statusCode(), pingResp.body());
+                    long rows = h2.queryLong(COUNT_ACCESS_ROWS);
+                    long written = rows - accessRows[0];
+                    accessRows[0] = rows;
+                    return written;
+                }, written -> written > 0)
+                .atMost(Duration.ofSeconds(MAX_CONFIG_WAIT_SECONDS))
+                .describedAs(written -> "no access rows written by probe request")
+                .get();
+    }
+
+    private void putAuditConfig(JsonNode config) throws Exception {
+        ObjectNode body = config.deepCopy();
+        body.remove("_id");
+        HttpResponse<String> resp = httpClient.send(request(AUDIT_CONFIG_PATH)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, resp.statusCode(), resp.body());
+    }
+
+    private List<JsonNode> getRecons() throws Exception {
+        HttpResponse<String> resp = httpClient.send(
+                request("/openidm/repo/audit/recon?_queryId=get-recons" + MAPPING_PARAMETERS).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, resp.statusCode(), resp.body());
+        List<JsonNode> recons = new ArrayList<>();
+        mapper.readTree(resp.body()).path("result").forEach(recons::add);
+        return recons;
+    }
+
+    private String startRecon() throws Exception {
+        HttpResponse<String> resp = httpClient.send(request("/openidm/recon?_action=recon&mapping=" + RECON_MAPPING)
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, resp.statusCode(), resp.body());
+        return mapper.readTree(resp.body()).path("_id").asString();
+    }
+
+    /**
+     * Wait for the reconciliation to finish and return its duration reported by the server.
+     */
+    private long awaitRecon(String reconId) throws Exception {
+        HttpRequest req = request("/openidm/recon/" + reconId).build();
+        JsonNode recon = Await.until("reconciliation " + reconId,
+                        () -> mapper.readTree(httpClient.send(req, HttpResponse.BodyHandlers.ofString()).body()),
+                        body -> {
+                            String state = body.path("state").asString();
+                            return !state.isEmpty() && !state.startsWith("ACTIVE");
+                        })
+                .atMost(Duration.ofMinutes(30))
+                .withBackoff(Duration.ofMillis(50), Duration.ofSeconds(1), 1.5)
+                .describedAs(JsonNode::toString)
+                .get();
+        assertEquals("SUCCESS", recon.path("state").asString(), recon.toString());
+        return recon.path("duration").asLong();
+    }
+
+    /**
+     * Sequential reader of a single resource recording start time and latency of every call.
+     */
+    private final class LatencyProbe {
+
+        private final String name;
+
+        private final HttpRequest request;
+
+        private final List<long[]> samples = new ArrayList<>();
+
+        private final Thread thread;
+
+        private volatile boolean running = true;
+
+        private int errors;
+
+        LatencyProbe(String name, String path) {
+            this.name = name;
+            this.request = request(path).build();
+            this.thread = new Thread(this::run, "probe-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void run() {
+            long intervalNanos = TimeUnit.MILLISECONDS.toNanos(BenchmarkProperties.getInt("benchmark.purge.probeMillis", 50));
+            while (running) {
+                long startNanos = System.nanoTime();
+                try {
+                    HttpResponse<Void> resp = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (resp.statusCode() != 200) {
+                        errors++;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                }
+                long latencyNanos = System.nanoTime() - startNanos;
+                synchronized (samples) {
+                    samples.add(new long[] { startNanos, latencyNanos });
+                }
+                long sleepNanos = intervalNanos - latencyNanos;
+                if (sleepNanos > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Latency of calls overlapping (or not overlapping) the given interval.
+         */
+        LatencyHistogram histogram(long fromNanos, long toNanos, boolean overlapping) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            synchronized (samples) {
+                for (long[] sample : samples) {
+                    boolean overlaps = sample[0] - toNanos < 0 && sample[0] + sample[1] - fromNanos > 0;
+                    if (overlaps == overlapping) {
+                        histogram.record(sample[1]);
+                    }
+                }
+            }
+            return histogram;
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentReset;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.HrCsvGenerator;
+import org.wrensecurity.wrenidm.test.base.Reconciliation;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Reconciliation throughput of {@code csvEmployee_managedUser} mapping over generated HR files of growing size.
+ *
+ * <p>Sizes are set with {@code benchmark.recon.sizes} property, mix of the generated rows with
+ * {@code benchmark.recon.invalidRatio} and {@code benchmark.recon.existingRatio}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReconciliationBenchmark extends BaseWrenidmTest {
+
+    private static final String RECON_MAPPING = "csvEmployee_managedUser";
+
+    private static final String UID_PREFIX = "recon";
+
+    private static final Path DATA_DIR = Path.of("target/benchmark-data/recon").toAbsolutePath();
+
+    private static final List<EnvironmentReset> RESETS = List.of(
+            EnvironmentResets.links(RECON_MAPPING),
+            EnvironmentResets.managedObjects("user"),
+            EnvironmentResets.repoTable("audit/recon"),
+            EnvironmentResets.repoTable("audit/sync"));
+
+    private final BenchmarkReport report = new BenchmarkReport("reconciliation");
+
+    @BeforeAll
+    public void init() throws Exception {
+        // CSV connector needs the source file to exist before it starts
+        new HrCsvGenerator(UID_PREFIX).generate(DATA_DIR.resolve("hr.csv"), 0);
+
+        EnvironmentSpec spec = EnvironmentSpec.forCase("sync")
+                .withEnv("SYNC_DATA_DIR", DATA_DIR.toString())
+                .withProvisioner("csv");
+        RESETS.forEach(spec::withReset);
+        environment = EnvironmentPool.acquire(spec);
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        report.write();
+        EnvironmentPool.release(environment);
+    }
+
+    public List<Integer> reconSizes() {
+        return BenchmarkProperties.getIntList("benchmark.recon.sizes", "1000,10000");
+    }
+
+    @ParameterizedTest(name = "{0} rows")
+    @MethodSource("reconSizes")
+    public void testReconciliation(int rows) throws Exception {
+        for (EnvironmentReset reset : RESETS) {
+            reset.reset(environment);
+        }
+
+        HrCsvGenerator.Result data = new HrCsvGenerator(UID_PREFIX)
+                .withInvalidRatio(BenchmarkProperties.getDouble("benchmark.recon.invalidRatio", 0.1))
+                .withExistingRatio(BenchmarkProperties.getDouble("benchmark.recon.existingRatio", 0.1))
+                .generate(DATA_DIR.resolve("hr.csv"), rows);
+        createManagedUsers(data.getExisting());
+
+        Reconciliation.Result recon = Reconciliation.run(environment, RECON_MAPPING);
+        long elapsedMillis = recon.elapsedMillis();
+
+        ObjectNode result = report.addResult();
+        result.put("rows", rows);
+        result.put("invalidRows", data.getInvalid());
+        result.put("existingUsers", data.getExisting().size());
+        recon.writeTo(result);
+        result.put("objectsPerSecond", elapsedMillis > 0 ? rows * 1000.0 / elapsedMillis : 0);
+        result.set("situationSummary", recon.recon().path("situationSummary"));
+        result.set("statusSummary", recon.recon().path("statusSummary"));
+
+        assertEquals(data.getAbsent(), recon.situationCount("ABSENT"));
+        assertEquals(data.getExisting().size(), recon.situationCount("FOUND"));
+        assertEquals(data.getInvalid(), recon.situationCount("SOURCE_IGNORED"));
+    }
+
+    private void createManagedUsers(List<HrCsvGenerator.Employee> employees) throws Exception {
+        for (HrCsvGenerator.Employee employee : employees) {
+            ObjectNode user = mapper.createObjectNode();
+            user.put("userName", employee.uid());
+            user.put("givenName", employee.firstName());
+            user.put("sn", employee.lastName());
+            user.put("mail", employee.uid() + "@wrensecurity.org");
+            user.put("telephoneNumber", employee.telephoneNumber());
+            user.put("password", "FooBar123");
+
+            HttpRequest req = HttpRequest.newBuilder()
+                    .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user/" + employee.uid()))
+                    .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(user)))
+                    .build();
+            HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, resp.statusCode());
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.H2Shell;
+import org.wrensecurity.wrenidm.test.base.HrCsvGenerator;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import org.wrensecurity.wrenidm.test.base.Reconciliation;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Side by side comparison of the generic ({@code managedobjects} and {@code managedobjectproperties}) and the explicit
+ * ({@code manageduser}, see {@code repo.jdbc-explicit.json}) repository layout of {@code managed/user}.
+ *
+ * <p>Both layouts run the same workload - reconciliation of a generated HR file followed by timed lookups - and
+ * report reconciliation throughput, repository rows written per user (write amplification), disk space of the
+ * tables and lookup latency. Number of users is set with {@code benchmark.layout.users}, number of timed lookups
+ * with {@code benchmark.layout.lookups}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RepositoryLayoutBenchmark extends BaseWrenidmTest {
+
+    private static final String RECON_MAPPING = "csvEmployee_managedUser";
+
+    private static final String UID_PREFIX = "layout";
+
+    private static final Path DATA_DIR = Path.of("target/benchmark-data/layout").toAbsolutePath();
+
+    private static final String GENERIC_LAYOUT = "generic";
+
+    private static final String EXPLICIT_LAYOUT = "explicit";
+
+    private static final String GENERIC_USER_ROWS_SQL = "SELECT COUNT(*) FROM wrenidm.managedobjects obj "
+            + "INNER JOIN wrenidm.objecttypes objtype ON objtype.id = obj.objecttypes_id "
+            + "WHERE objtype.objecttype = 'managed/user'";
+
+    private static final String GENERIC_PROPERTY_ROWS_SQL = "SELECT COUNT(*) FROM wrenidm.managedobjectproperties prop "
+            + "INNER JOIN wrenidm.managedobjects obj ON obj.id = prop.managedobjects_id "
+            + "INNER JOIN wrenidm.objecttypes objtype ON objtype.id = obj.objecttypes_id "
+            + "WHERE objtype.objecttype = 'managed/user'";
+
+    private static final Map<String, IntFunction<String>> LOOKUPS = new LinkedHashMap<>();
+
+    static {
+        LOOKUPS.put("_id eq", index -> "/_id eq \"" + HrCsvGenerator.uid(UID_PREFIX, index) + "\"");
+        LOOKUPS.put("userName eq", index -> "/userName eq \"" + HrCsvGenerator.uid(UID_PREFIX, index) + "\"");
+        LOOKUPS.put("sn eq (low selectivity)", index -> "/sn eq \"Stark\"");
+        LOOKUPS.put("givenName sw (low selectivity)", index -> "/givenName sw \"Ja\"");
+    }
+
+    private final int users = BenchmarkProperties.getInt("benchmark.layout.users", 10000);
+
+    private final BenchmarkReport report = new BenchmarkReport("repository-layout");
+
+    private final Map<String, ObjectNode> layoutResults = new LinkedHashMap<>();
+
+    @AfterAll
+    public void teardown() throws Exception {
+        report.getRoot().put("users", users);
+        ObjectNode generic = layoutResults.get(GENERIC_LAYOUT);
+        ObjectNode explicit = layoutResults.get(EXPLICIT_LAYOUT);
+        if (generic != null && explicit != null) {
+            ObjectNode comparison = report.getRoot().putObject("explicitToGenericRatio");
+            comparison.put("reconDuration", ratio(explicit, generic, "reconDurationMillis"));
+            comparison.put("rowsPerUser", ratio(explicit, generic, "rowsPerUser"));
+            comparison.put("storageBytes", ratio(explicit, generic, "storageBytes"));
+            for (String lookup : LOOKUPS.keySet()) {
+                comparison.put(lookup + " p50", explicit.path("lookups").path(lookup).path("p50Millis").asDouble()
+                        / generic.path("lookups").path(lookup).path("p50Millis").asDouble());
+            }
+        }
+        report.write();
+    }
+
+    @ParameterizedTest(name = "{0} layout")
+    @ValueSource(strings = { GENERIC_LAYOUT, EXPLICIT_LAYOUT })
+    public void testLayout(String layout) throws Exception {
+        HrCsvGenerator.Result data = new HrCsvGenerator(UID_PREFIX)
+                .withInvalidRatio(0)
+                .withExistingRatio(0)
+                .generate(DATA_DIR.resolve("hr.csv"), users);
+
+        EnvironmentSpec spec = EnvironmentSpec.forCase("sync")
+                .withEnv("SYNC_DATA_DIR", DATA_DIR.toString())
+                .withProvisioner("csv")
+                .withExposedService(H2Shell.SERVICE_NAME, H2Shell.TCP_PORT)
+                .withReset(EnvironmentResets.links(RECON_MAPPING))
+                .withReset(EnvironmentResets.managedObjects("user"))
+                .withReset(EnvironmentResets.repoTable("audit/recon"))
+                .withReset(EnvironmentResets.repoTable("audit/sync"));
+        if (EXPLICIT_LAYOUT.equals(layout)) {
+            spec.withEnv("SYNC_REPO_CONFIG", "./conf/repo.jdbc-explicit.json");
+        }
+        environment = EnvironmentPool.acquire(spec);
+        try {
+            ObjectNode result = report.addResult();
+            result.put("layout", layout);
+            runReconciliation(result, data);
+            measureRepository(result, new H2Shell(environment), layout);
+            runLookups(result.putObject("lookups"));
+            layoutResults.put(layout, result);
+        } finally {
+            EnvironmentPool.release(environment);
+        }
+    }
+
+    private void runReconciliation(ObjectNode result, HrCsvGenerator.Result data) throws Exception {
+        long elapsedMillis = Reconciliation.run(environment, RECON_MAPPING).elapsedMillis();
+
+        result.put("reconDurationMillis", elapsedMillis);
+        result.put("objectsPerSecond", elapsedMillis > 0 ? data.getRows() * 1000.0 / elapsedMillis : 0);
+    }
+
+    /**
+     * Rows and disk space used by managed users in the repository tables of the layout.
+     */
+    private void measureRepository(ObjectNode result, H2Shell h2, String layout) throws Exception {
+        long rows;
+        long storageBytes;
+        if (EXPLICIT_LAYOUT.equals(layout)) {
+            rows = h2.queryLong("SELECT COUNT(*) FROM wrenidm.manageduser");
+            storageBytes = h2.queryLong("SELECT DISK_SPACE_USED('WRENIDM.MANAGEDUSER')");
+        } else {
+            rows = h2.queryLong(GENERIC_USER_ROWS_SQL) + h2.queryLong(GENERIC_PROPERTY_ROWS_SQL);
+            storageBytes = h2.queryLong("SELECT DISK_SPACE_USED('WRENIDM.MANAGEDOBJECTS')")
+                    + h2.queryLong("SELECT DISK_SPACE_USED('WRENIDM.MANAGEDOBJECTPROPERTIES')");
+        }
+        result.put("rows", rows);
+        result.put("rowsPerUser", (double) rows / users);
+        result.put("storageBytes", storageBytes);
+        result.put("bytesPerUser", (double) storageBytes / users);
+    }
+
+    private void runLookups(ObjectNode results) throws Exception {
+        int lookups = BenchmarkProperties.getInt("benchmark.layout.lookups", 50);
+        Random random = new Random(42);
+        for (Map.Entry<String, IntFunction<String>> lookup : LOOKUPS.entrySet()) {
+            LatencyHistogram latency = new LatencyHistogram();
+            long resultCount = 0;
+            for (int i = 0; i < lookups; i++) {
+                String filter = lookup.getValue().apply(1 + random.nextInt(users));
+                HttpRequest req = HttpRequest.newBuilder()
+                        .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user?_queryFilter="
+                                + URLEncoder.encode(filter, StandardCharsets.UTF_8) + "&_fields=_id"))
+                        .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                        .build();
+                long startNanos = System.nanoTime();
+                HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
+                latency.record(System.nanoTime() - startNanos);
+                assertEquals(200, resp.statusCode(), resp.body());
+                resultCount += mapper.readTree(resp.body()).path("resultCount").asLong();
+            }
+            ObjectNode result = latency.writeTo(results.putObject(lookup.getKey()));
+            result.put("meanResultCount", (double) resultCount / lookups);
+        }
+    }
+
+    private static double ratio(ObjectNode numerator, ObjectNode denominator, String field) {
+        return numerator.path(field).asDouble() / denominator.path(field).asDouble();
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.H2Shell;
+import org.wrensecurity.wrenidm.test.base.HrCsvGenerator;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import org.wrensecurity.wrenidm.test.base.ManagedUserLoader;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Lookup latency of {@code managed/user} queries on searchable and non-searchable properties of the generic
+ * {@code managedobjects} table with growing number of users.
+ *
+ * <p>Every lookup is also executed as the equivalent SQL with {@code EXPLAIN ANALYZE} in the {@code h2} service, which
+ * shows the used indexes and the number of scanned rows. Searchable properties are copied to
+ * {@code managedobjectproperties}, so their SQL is the join over that table. A non-searchable property has no rows
+ * there ({@code propertyRows} of the result), so the join cannot answer it and the REST query finds nothing or fails
+ * (reported as is) - the SQL that would answer it is a scan of {@code managedobjects.fullobject}.
+ * Table sizes are set with {@code benchmark.repo.sizes}, number of timed lookups with {@code benchmark.repo.lookups}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RepositoryQueryBenchmark extends BaseBenchmarkTest {
+
+    private static final String USER_PREFIX = "repo";
+
+    private static final String PROPERTY_JOIN_SQL = "SELECT obj.fullobject FROM wrenidm.managedobjects obj "
+            + "INNER JOIN wrenidm.objecttypes objtype ON objtype.id = obj.objecttypes_id "
+            + "INNER JOIN wrenidm.managedobjectproperties prop ON obj.id = prop.managedobjects_id "
+            + "WHERE objtype.objecttype = 'managed/user' AND prop.propkey = '%s' AND prop.propvalue %s";
+
+    private static final String FULLOBJECT_SCAN_SQL = "SELECT obj.fullobject FROM wrenidm.managedobjects obj "
+            + "INNER JOIN wrenidm.objecttypes objtype ON objtype.id = obj.objecttypes_id "
+            + "WHERE objtype.objecttype = 'managed/user' AND obj.fullobject LIKE '%%%s%%'";
+
+    private static final String USERS_PATH = "/openidm/managed/user?_fields=_id&";
+
+    /**
+     * Lookup by a single property of the user.
+     *
+     * @param property   JSON pointer of the looked up property
+     * @param searchable whether the property is copied to {@code managedobjectproperties}
+     */
+    private record PropertyLookup(String property, boolean searchable, Lookup lookup) {
+    }
+
+    private static final List<PropertyLookup> LOOKUPS = List.of(
+            new PropertyLookup("/userName", true, new Lookup("userName eq",
+                    index -> USERS_PATH + "_queryFilter=" + encode("/userName eq \"" + userName(index) + "\""),
+                    index -> String.format(PROPERTY_JOIN_SQL, "/userName", "= '" + userName(index) + "'"))),
+            new PropertyLookup("/userName", true, new Lookup("for-userName",
+                    index -> USERS_PATH + "_queryId=for-userName&uid=" + userName(index),
+                    index -> String.format(PROPERTY_JOIN_SQL, "/userName", "= '" + userName(index) + "'"))),
+            new PropertyLookup("/mail", true, new Lookup("mail eq",
+                    index -> USERS_PATH + "_queryFilter=" + encode("/mail eq \"" + mail(index) + "\""),
+                    index -> String.format(PROPERTY_JOIN_SQL, "/mail", "= '" + mail(index) + "'"))),
+            new PropertyLookup("/sn", true, new Lookup("sn sw",
+                    index -> USERS_PATH + "_queryFilter=" + encode("/sn sw \"Doe" + index + "\""),
+                    index -> String.format(PROPERTY_JOIN_SQL, "/sn", "LIKE 'Doe" + index + "%'"))),
+            new PropertyLookup("/givenName", true, new Lookup("givenName co",
+                    index -> USERS_PATH + "_queryFilter=" + encode("/givenName co \"ohn" + index + "\""),
+                    index -> String.format(PROPERTY_JOIN_SQL, "/givenName", "LIKE '%ohn" + index + "%'"))),
+            new PropertyLookup("/telephoneNumber", false, new Lookup("telephoneNumber eq",
+                    index -> USERS_PATH + "_queryFilter="
+                            + encode("/telephoneNumber eq \"" + telephoneNumber(index) + "\""),
+                    index -> String.format(FULLOBJECT_SCAN_SQL,
+                            "\"telephoneNumber\":\"" + telephoneNumber(index) + "\""))));
+
+    private final BenchmarkReport report = new BenchmarkReport("repository-query");
+
+    private final Random random = new Random(42);
+
+    private H2Shell h2;
+
+    @BeforeAll
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("sync")
+                .withExposedService(H2Shell.SERVICE_NAME, H2Shell.TCP_PORT)
+                .withReset(EnvironmentResets.managedObjects("user")));
+        h2 = new H2Shell(environment);
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        report.write();
+        EnvironmentPool.release(environment);
+    }
+
+    public List<Integer> tableSizes() {
+        return BenchmarkProperties.getIntList("benchmark.repo.sizes", "1000,10000");
+    }
+
+    @ParameterizedTest(name = "{0} users")
+    @MethodSource("tableSizes")
+    public void testLookups(int users) throws Exception {
+        // Users loaded for smaller sizes are kept, only the missing ones are created
+        ManagedUserLoader.forEnvironment(environment, USER_PREFIX)
+                .withUserFactory(RepositoryQueryBenchmark::createUser)
+                .withMaxInFlight(BenchmarkProperties.getInt("benchmark.repo.loadConcurrency", 16))
+                .loadWithRest(users);
+        int lookups = BenchmarkProperties.getInt("benchmark.repo.lookups", 50);
+
+        for (PropertyLookup propertyLookup : LOOKUPS) {
+            Lookup lookup = propertyLookup.lookup();
+            LatencyHistogram latency = new LatencyHistogram();
+            long results = 0;
+            int errors = 0;
+            String firstError = null;
+            for (int i = 0; i < lookups; i++) {
+                int index = 1 + random.nextInt(users);
+                HttpRequest req = request(lookup.path().apply(index)).build();
+                long startNanos = System.nanoTime();
+                HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
+                latency.record(System.nanoTime() - startNanos);
+                if (resp.statusCode() == 200) {
+                    results += mapper.readTree(resp.body()).path("resultCount").asLong();
+                } else {
+                    // Accepted for non-searchable properties only, the result shows how the server handles them
+                    assertFalse(propertyLookup.searchable(), resp.body());
+                    errors++;
+                    firstError = firstError != null ? firstError : resp.statusCode() + " " + resp.body();
+                }
+            }
+            H2Shell.Plan plan = h2.explainAnalyze(lookup.sql().apply(1 + random.nextInt(users)));
+
+            ObjectNode result = report.addResult();
+            result.put("users", users);
+            result.put("lookup", lookup.name());
+            result.put("searchable", propertyLookup.searchable());
+            result.put("propertyRows", h2.queryLong("SELECT COUNT(*) FROM wrenidm.managedobjectproperties "
+                    + "WHERE propkey = '" + propertyLookup.property() + "'"));
+            result.put("meanResultCount", (double) results / lookups);
+            result.put("errors", errors);
+            if (firstError != null) {
+                result.put("firstError", firstError);
+            }
+            latency.writeTo(result.putObject("latency"));
+            result.put("scanCount", plan.scanCount());
+            result.put("tableScan", plan.tableScan());
+            result.put("plan", plan.text());
+        }
+    }
+
+    private static ObjectNode createUser(int index) {
+        ObjectNode user = mapper.createObjectNode();
+        user.put("userName", userName(index));
+        user.put("givenName", "John" + index);
+        user.put("sn", "Doe" + index);
+        user.put("mail", mail(index));
+        user.put("telephoneNumber", telephoneNumber(index));
+        user.put("password", "FooBar123");
+        return user;
+    }
+
+    private static String userName(int index) {
+        return HrCsvGenerator.uid(USER_PREFIX, index);
+    }
+
+    private static String mail(int index) {
+        return userName(index) + "@wrensecurity.org";
+    }
+
+    private static String telephoneNumber(int index) {
+        return String.format("555%07d", index);
+    }
+
+}
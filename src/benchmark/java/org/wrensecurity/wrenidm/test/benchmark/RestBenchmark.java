@@ -0,0 +1,106 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+
+/**
+ * Hot REST calls exercised by the system tests (ping, managed user CRUD and query, custom script endpoint).
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RestBenchmark extends BaseWrenidmBenchmark {
+
+    private static final String MANAGED_USER_DATA = """
+        {
+          "userName": "%s",
+          "givenName": "John",
+          "sn": "Doe",
+          "mail": "%s@wrensecurity.org",
+          "password":"Password1"
+        }
+        """;
+
+    // User looked up by the custom endpoint script
+    private static final String ENDPOINT_USER_ID = "endpoint";
+
+    private final AtomicLong userSequence = new AtomicLong();
+
+    private String queryFilter;
+
+    @Override
+    protected EnvironmentSpec environmentSpec() {
+        return EnvironmentSpec.forCase("endpoint")
+                .withReset(EnvironmentResets.managedObjects("user"));
+    }
+
+    @Override
+    protected void setupData() throws Exception {
+        send(request("/openidm/managed/user/" + ENDPOINT_USER_ID)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(MANAGED_USER_DATA.formatted(ENDPOINT_USER_ID, ENDPOINT_USER_ID)))
+                .build(), 201);
+        queryFilter = URLEncoder.encode("/userName eq \"" + ENDPOINT_USER_ID + "\"", StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String ping() throws Exception {
+        return send(request("/openidm/info/ping")
+                .setHeader("Authorization", ANONYMOUS_AUTHORIZATION_HEADER_VALUE)
+                .build(), 200);
+    }
+
+    @Benchmark
+    public String managedUserPut() throws Exception {
+        String userName = "benchmark" + userSequence.incrementAndGet();
+        return send(request("/openidm/managed/user/" + userName)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(MANAGED_USER_DATA.formatted(userName, userName)))
+                .build(), 201);
+    }
+
+    @Benchmark
+    public String managedUserGet() throws Exception {
+        return send(request("/openidm/managed/user/" + ENDPOINT_USER_ID).build(), 200);
+    }
+
+    @Benchmark
+    public String managedUserQuery() throws Exception {
+        return send(request("/openidm/managed/user?_queryFilter=" + queryFilter).build(), 200);
+    }
+
+    @Benchmark
+    public String customEndpointQuery() throws Exception {
+        return send(request("/openidm/endpoint/custom/users?_queryId=dummy").build(), 200);
+    }
+
+}
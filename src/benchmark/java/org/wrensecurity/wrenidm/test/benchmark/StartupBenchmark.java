@@ -0,0 +1,210 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.Await;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.ContainerControl;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Time from Wren:IDM container start to {@code ACTIVE_READY} for compose cases and JVM option variants.
+ *
+ * <p>Each environment is started through the pool and then the Wren:IDM container is restarted
+ * {@code benchmark.startup.restarts} times. Restarts keep the container file system, so that a CDS archive
+ * created on the first exit is used by the following boots. When the pool starts a fresh environment, its initial
+ * boot is reported as restart {@code 0} (not included in the {@code ready} summary). Cases are selected with
+ * {@code benchmark.startup.cases} (all compose cases by default), JVM option variants (passed through
+ * {@code WRENIDM_JAVA_OPTIONS}) with {@code benchmark.startup.jvmOptions} separated by {@code ;}. Phases are the
+ * first container log lines matching {@code benchmark.startup.phase.<name>} patterns, reported as milliseconds
+ * since the container start ({@code null} when no line matches).
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class StartupBenchmark extends BaseWrenidmTest {
+
+    private static final Duration MAX_STARTUP = Duration.ofMinutes(5);
+
+    private static final Path CASES_DIR = Path.of("src/test/resources/cases");
+
+    private static final Map<String, String> DEFAULT_PHASES = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_PHASES.put("framework", "(?i)(OpenIDM|Wren:IDM) version");
+        DEFAULT_PHASES.put("repository", "(?i)repo(sitory)?\\b.*(start|init|activat)");
+        DEFAULT_PHASES.put("provisioner", "(?i)connector.*(start|regist|initiali)");
+        DEFAULT_PHASES.put("workflow", "(?i)ProcessEngine .*created");
+        DEFAULT_PHASES.put("ready", "(?i)(OpenIDM|Wren:IDM) ready");
+    }
+
+    private final BenchmarkReport report = new BenchmarkReport("startup");
+
+    private final Map<String, Pattern> phases = new LinkedHashMap<>();
+
+    public StartupBenchmark() {
+        DEFAULT_PHASES.forEach((name, pattern) ->
+                phases.put(name, Pattern.compile(System.getProperty("benchmark.startup.phase." + name, pattern))));
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        report.write();
+    }
+
+    public Stream<Arguments> variants() throws IOException {
+        List<String> jvmOptions = List.of(System.getProperty("benchmark.startup.jvmOptions", "").split(";", -1));
+        return BenchmarkProperties.getStringList("benchmark.startup.cases", String.join(",", listCases())).stream()
+                .flatMap(caseName -> jvmOptions.stream().map(options -> Arguments.of(caseName, options.trim())));
+    }
+
+    @ParameterizedTest(name = "{0} [{1}]")
+    @MethodSource("variants")
+    public void testStartup(String caseName, String jvmOptions) throws Exception {
+        EnvironmentSpec spec = EnvironmentSpec.forCase(caseName);
+        if (!jvmOptions.isEmpty()) {
+            spec.withEnv("WRENIDM_JAVA_OPTIONS", jvmOptions);
+        }
+        Instant acquiredFrom = Instant.now();
+        environment = EnvironmentPool.acquire(spec);
+        try {
+            String containerId = environment.getServiceContainer(WRENIDM_CONTAINER_NAME).getContainerId();
+            LatencyHistogram stop = new LatencyHistogram();
+            LatencyHistogram ready = new LatencyHistogram();
+            List<ObjectNode> boots = new ArrayList<>();
+
+            // Container started by this acquire, the environment was ready when the pool returned it
+            Instant initialStartedAt = ContainerControl.getStartedAt(containerId);
+            boolean freshEnvironment = initialStartedAt.isAfter(acquiredFrom);
+            if (freshEnvironment) {
+                boots.add(createBoot(0, containerId, initialStartedAt, Instant.now()));
+            }
+            for (int restart = 1; restart <= BenchmarkProperties.getInt("benchmark.startup.restarts", 3); restart++) {
+                long stopNanos = System.nanoTime();
+                ContainerControl.stop(containerId, Duration.ofSeconds(60));
+                stop.record(System.nanoTime() - stopNanos);
+
+                ContainerControl.start(containerId);
+                Instant startedAt = ContainerControl.getStartedAt(containerId);
+                Instant readyAt = awaitReady();
+                ready.record(Duration.between(startedAt, readyAt).toNanos());
+                boots.add(createBoot(restart, containerId, startedAt, readyAt));
+            }
+
+            ObjectNode result = report.addResult();
+            result.put("case", caseName);
+            result.put("jvmOptions", jvmOptions);
+            result.put("freshEnvironment", freshEnvironment);
+            stop.writeTo(result.putObject("stop"));
+            ready.writeTo(result.putObject("ready"));
+            boots.forEach(result.putArray("boots")::add);
+        } finally {
+            EnvironmentPool.release(environment);
+        }
+    }
+
+    private ObjectNode createBoot(int restart, String containerId, Instant startedAt, Instant readyAt)
+            throws Exception {
+        ObjectNode boot = mapper.createObjectNode();
+        boot.put("restart", restart);
+        boot.put("readyMillis", Duration.between(startedAt, readyAt).toMillis());
+        writePhases(boot.putObject("phasesMillis"), containerId, startedAt);
+        return boot;
+    }
+
+    /**
+     * Poll the ping endpoint until the instance reports {@code ACTIVE_READY}.
+     */
+    private Instant awaitReady() throws Exception {
+        HttpRequest pingReq = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/info/ping"))
+                .header("Authorization", ANONYMOUS_AUTHORIZATION_HEADER_VALUE)
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        Await.until("Wren:IDM ready", () -> {
+                    try {
+                        HttpResponse<String> pingResp = httpClient.send(pingReq,
+                                HttpResponse.BodyHandlers.ofString());
+                        return pingResp.statusCode() == 200
+                                ? mapper.readTree(pingResp.body()).path("state").asString()
+                                : "";
+                    } catch (IOException e) {
+                        // port not bound yet
+                        return "";
+                    }
+                }, "ACTIVE_READY"::equals)
+                .atMost(MAX_STARTUP)
+                // Short constant interval, the ready time is measured with the probe resolution
+                .withBackoff(Duration.ofMillis(100), Duration.ofMillis(100), 1)
+                .get();
+        return Instant.now();
+    }
+
+    private void writePhases(ObjectNode node, String containerId, Instant startedAt) throws Exception {
+        List<String> lines = ContainerControl.getLogs(containerId, startedAt);
+        for (Map.Entry<String, Pattern> phase : phases.entrySet()) {
+            node.putNull(phase.getKey());
+            for (String line : lines) {
+                int separator = line.indexOf(' ');
+                if (separator < 0 || !phase.getValue().matcher(line.substring(separator + 1)).find()) {
+                    continue;
+                }
+                try {
+                    node.put(phase.getKey(), Duration.between(startedAt, Instant.parse(line.substring(0, separator))).toMillis());
+                    break;
+                } catch (DateTimeParseException e) {
+                    // line without timestamp prefix
+                }
+            }
+        }
+    }
+
+    /**
+     * Names of all compose case directories.
+     */
+    private static List<String> listCases() throws IOException {
+        try (Stream<Path> cases = Files.list(CASES_DIR)) {
+            return cases.filter(dir -> Files.isRegularFile(dir.resolve("compose.yaml")))
+                    .map(dir -> dir.getFileName().toString())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+}
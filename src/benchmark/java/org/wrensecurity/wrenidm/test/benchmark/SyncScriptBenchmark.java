@@ -0,0 +1,377 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.Await;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentReset;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.HrCsvGenerator;
+import org.wrensecurity.wrenidm.test.base.LdapShell;
+import org.wrensecurity.wrenidm.test.base.LoadGenerator;
+import org.wrensecurity.wrenidm.test.base.Reconciliation;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Per-object cost of the scripts in {@code sync.json} on the reconciliation ({@code csvEmployee_managedUser}) and
+ * implicit synchronization ({@code managedUser_ldapAccount}) paths.
+ *
+ * <p>Each variant replaces scripted parts of one mapping with a plain mapping or removes them, the mapping
+ * configuration is applied through {@code config/sync} and the workload is repeated. The cost of a script is the
+ * difference between the unchanged mapping ({@code scripts}) and the variant. The original configuration is restored
+ * at the end.
+ *
+ * <p>Every applied configuration adds a constant {@code description} to {@code managedUser_ldapAccount}. A probe user
+ * is written until its LDAP account carries the description, which proves that the reloaded mappings are in use.
+ *
+ * <p>Scripts are compiled when the mapping configuration is loaded. The first implicit synchronization after every
+ * configuration change (the probe write that sees the reloaded mappings) is reported separately
+ * ({@code firstWriteMillis}) - if it is not markedly slower than the steady state and the per-object cost of a script
+ * stays high, compiled scripts are not being reused.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SyncScriptBenchmark extends BaseBenchmarkTest {
+
+    private static final String SYNC_CONFIG_PATH = "/openidm/config/sync";
+
+    private static final String RECON_MAPPING = "csvEmployee_managedUser";
+
+    private static final String SYNC_MAPPING = "managedUser_ldapAccount";
+
+    private static final String RECON_PREFIX = "scriptrecon";
+
+    private static final String SYNC_PREFIX = "syncscript";
+
+    // Prefix of probe users (propagated to LDAP by validSource), also the description marking the applied configuration
+    private static final String PROBE_PREFIX = SYNC_PREFIX + "probe";
+
+    private static final int MAX_CONFIG_WAIT_SECONDS = 30;
+
+    private static final Path DATA_DIR = Path.of("target/benchmark-data/scripts").toAbsolutePath();
+
+    private static final List<EnvironmentReset> RESETS = List.of(
+            EnvironmentResets.links(RECON_MAPPING),
+            EnvironmentResets.links(SYNC_MAPPING),
+            EnvironmentResets.managedObjects("user"),
+            EnvironmentResets.repoTable("audit/recon"),
+            EnvironmentResets.repoTable("audit/sync"));
+
+    /**
+     * Change of a single mapping. Variant named {@code scripts} keeps the mapping unchanged and has to be first.
+     */
+    private record Variant(String name, String mapping, Consumer<ObjectNode> change) {
+
+        @Override
+        public String toString() {
+            return mapping + " " + name;
+        }
+    }
+
+    private final BenchmarkReport report = new BenchmarkReport("sync-scripts");
+
+    private final int rows = BenchmarkProperties.getInt("benchmark.syncScripts.rows", 2000);
+
+    private final int users = BenchmarkProperties.getInt("benchmark.syncScripts.users", 500);
+
+    private final Map<String, Double> baselineMillisPerObject = new HashMap<>();
+
+    private LdapShell ldap;
+
+    private JsonNode originalConfig;
+
+    private int syncRun;
+
+    private int configRun;
+
+    @BeforeAll
+    public void init() throws Exception {
+        new HrCsvGenerator(RECON_PREFIX)
+                .withInvalidRatio(0)
+                .withExistingRatio(0)
+                .generate(DATA_DIR.resolve("hr.csv"), rows);
+
+        EnvironmentSpec spec = EnvironmentSpec.forCase("sync")
+                .withEnv("SYNC_DATA_DIR", DATA_DIR.toString())
+                .withExposedService(LdapShell.SERVICE_NAME, LdapShell.LDAP_PORT)
+                .withProvisioner("csv")
+                .withProvisioner("ldap");
+        RESETS.forEach(spec::withReset);
+        environment = EnvironmentPool.acquire(spec);
+        ldap = new LdapShell(environment);
+
+        HttpResponse<String> configResp = httpClient.send(request(SYNC_CONFIG_PATH).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, configResp.statusCode(), configResp.body());
+        originalConfig = mapper.readTree(configResp.body());
+        report.getRoot().put("rows", rows);
+        report.getRoot().put("users", users);
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        try {
+            if (originalConfig != null) {
+                applyConfig(originalConfig);
+                for (EnvironmentReset reset : RESETS) {
+                    reset.reset(environment);
+                }
+                ldap.deleteAccounts(SYNC_PREFIX);
+            }
+        } finally {
+            report.write();
+            EnvironmentPool.release(environment);
+        }
+    }
+
+    public List<Variant> reconVariants() {
+        return List.of(
+                new Variant("scripts", RECON_MAPPING, mapping -> { }),
+                new Variant("noValidSource", RECON_MAPPING, mapping -> mapping.remove("validSource")),
+                new Variant("plainMail", RECON_MAPPING, mapping -> replaceProperty(mapping, "mail",
+                        mapper.createObjectNode().put("source", "uid").put("target", "mail"))),
+                new Variant("noScripts", RECON_MAPPING, mapping -> {
+                    mapping.remove("validSource");
+                    replaceProperty(mapping, "mail",
+                            mapper.createObjectNode().put("source", "uid").put("target", "mail"));
+                }));
+    }
+
+    public List<Variant> syncVariants() {
+        return List.of(
+                new Variant("scripts", SYNC_MAPPING, mapping -> { }),
+                new Variant("noValidSource", SYNC_MAPPING, mapping -> mapping.remove("validSource")),
+                new Variant("plainDn", SYNC_MAPPING, mapping -> replaceProperty(mapping, "dn",
+                        mapper.createObjectNode().put("source", "ldapDn").put("target", "dn"))),
+                new Variant("noPasswordDecrypt", SYNC_MAPPING,
+                        mapping -> replaceProperty(mapping, "userPassword", null)),
+                new Variant("noScripts", SYNC_MAPPING, mapping -> {
+                    mapping.remove("validSource");
+                    replaceProperty(mapping, "dn",
+                            mapper.createObjectNode().put("source", "ldapDn").put("target", "dn"));
+                    replaceProperty(mapping, "userPassword", null);
+                }));
+    }
+
+    /**
+     * Reconcile all rows into new managed users and then again over the created links (no changes).
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("reconVariants")
+    @Order(1)
+    public void testReconciliation(Variant variant) throws Exception {
+        applyVariant(variant);
+        for (EnvironmentReset reset : RESETS) {
+            reset.reset(environment);
+        }
+
+        ObjectNode result = report.addResult();
+        result.put("mapping", variant.mapping());
+        result.put("variant", variant.name());
+        ObjectNode create = recon("ABSENT");
+        ObjectNode confirm = recon("CONFIRMED");
+        result.set("create", create);
+        result.set("confirm", confirm);
+        putCost(create, variant, "create", rows);
+        putCost(confirm, variant, "confirm", rows);
+    }
+
+    /**
+     * Create managed users propagated to LDAP by implicit synchronization. Synchronization runs within the create
+     * request, so its cost is part of the write latency.
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("syncVariants")
+    @Order(2)
+    public void testImplicitSync(Variant variant) throws Exception {
+        long firstWriteNanos = applyVariant(variant);
+        String prefix = SYNC_PREFIX + ++syncRun + "x";
+
+        ObjectNode result = report.addResult();
+        result.put("mapping", variant.mapping());
+        result.put("variant", variant.name());
+        result.put("firstWriteMillis", TimeUnit.NANOSECONDS.toMicros(firstWriteNanos) / 1000.0);
+
+        LoadGenerator.Result writes = LoadGenerator
+                .forRequests(httpClient, index -> createUserRequest(HrCsvGenerator.uid(prefix, index + 1)))
+                .withConcurrency(BenchmarkProperties.getInt("benchmark.syncScripts.concurrency", 4))
+                .withRequests(users)
+                .withExpectedStatus(201)
+                .run();
+        ObjectNode writeResult = writes.writeTo(result.putObject("writes"));
+        writeResult.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(writes.getDurationNanos()));
+        putCost(writeResult, variant, "write", users);
+
+        assertEquals(0, writes.getErrors(), writes.getFirstError());
+        assertEquals(users, ldap.countAccounts(prefix));
+    }
+
+    /**
+     * Run reconciliation, check that all rows were in the given situation and write its duration.
+     */
+    private ObjectNode recon(String situation) throws Exception {
+        Reconciliation.Result recon = Reconciliation.run(environment, RECON_MAPPING);
+        assertEquals(rows, recon.situationCount(situation), recon.recon().toString());
+        return recon.writeTo(mapper.createObjectNode());
+    }
+
+    /**
+     * Write time per object and the time saved by the variant compared to the unchanged mapping.
+     */
+    private void putCost(ObjectNode result, Variant variant, String workload, int objects) {
+        double millisPerObject = result.path("durationMillis").asDouble() / objects;
+        String key = variant.mapping() + "/" + workload;
+        if ("scripts".equals(variant.name())) {
+            baselineMillisPerObject.put(key, millisPerObject);
+        }
+        result.put("millisPerObject", millisPerObject);
+        Double baseline = baselineMillisPerObject.get(key);
+        if (baseline != null) {
+            result.put("scriptMillisPerObject", baseline - millisPerObject);
+        }
+    }
+
+    /**
+     * Apply the variant and wait until implicit synchronization uses the reloaded mappings.
+     *
+     * @return duration of the first probe write synchronized with the reloaded mappings
+     */
+    private long applyVariant(Variant variant) throws Exception {
+        String marker = PROBE_PREFIX + ++configRun;
+        ObjectNode config = originalConfig.deepCopy();
+        for (JsonNode mapping : config.path("mappings")) {
+            if (variant.mapping().equals(mapping.path("name").asString())) {
+                variant.change().accept((ObjectNode) mapping);
+            }
+            if (SYNC_MAPPING.equals(mapping.path("name").asString())) {
+                ((ArrayNode) mapping.path("properties")).addObject()
+                        .put("default", marker)
+                        .put("target", "description");
+            }
+        }
+        applyConfig(config);
+
+        int[] attempts = { 0 };
+        long[] probeNanos = { 0 };
+        Await.until("mappings with " + marker, () -> {
+                    String userName = marker + "x" + ++attempts[0];
+                    long startNanos = System.nanoTime();
+                    HttpResponse<String> probeResp = httpClient.send(createUserRequest(userName),
+                            HttpResponse.BodyHandlers.ofString());
+                    probeNanos[0] = System.nanoTime() - startNanos;
+                    assertEquals(201, probeResp.statusCode(), probeResp.body());
+                    return getAccountDescription(userName);
+                }, marker::equals)
+                .atMost(Duration.ofSeconds(MAX_CONFIG_WAIT_SECONDS))
+                .describedAs(description -> "probe account description '" + description + "'")
+                .get();
+        return probeNanos[0];
+    }
+
+    private void applyConfig(JsonNode config) throws Exception {
+        ObjectNode body = config.deepCopy();
+        body.remove("_id");
+        HttpResponse<String> configResp = httpClient.send(request(SYNC_CONFIG_PATH)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, configResp.statusCode(), configResp.body());
+
+        HttpRequest getReq = request(SYNC_CONFIG_PATH).build();
+        Await.until("sync configuration update",
+                        () -> httpClient.send(getReq, HttpResponse.BodyHandlers.ofString()),
+                        response -> {
+                            if (response.statusCode() != 200) {
+                                return false;
+                            }
+                            ObjectNode stored = (ObjectNode) mapper.readTree(response.body());
+                            stored.remove("_id");
+                            return body.equals(stored);
+                        })
+                .atMost(Duration.ofSeconds(MAX_CONFIG_WAIT_SECONDS))
+                .describedAs(HttpResponse::body)
+                .get();
+    }
+
+    private String getAccountDescription(String userName) throws Exception {
+        String filter = encode("uid eq \"" + userName + "\"");
+        HttpResponse<String> resp = httpClient.send(
+                request("/openidm/system/ldap/account?_queryFilter=" + filter + "&_fields=description").build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, resp.statusCode(), resp.body());
+        return mapper.readTree(resp.body()).path("result").path(0).path("description").asString();
+    }
+
+    /**
+     * Replace mapping property with the given target (remove it when the replacement is {@code null}).
+     */
+    private static void replaceProperty(ObjectNode mapping, String target, ObjectNode replacement) {
+        ArrayNode properties = (ArrayNode) mapping.path("properties");
+        for (int i = 0; i < properties.size(); i++) {
+            if (target.equals(properties.get(i).path("target").asString())) {
+                if (replacement == null) {
+                    properties.remove(i);
+                } else {
+                    properties.set(i, replacement);
+                }
+                return;
+            }
+        }
+        throw new IllegalArgumentException("No property with target " + target);
+    }
+
+    private HttpRequest createUserRequest(String userName) {
+        ObjectNode user = mapper.createObjectNode();
+        user.put("userName", userName);
+        user.put("givenName", "John");
+        user.put("sn", "Doe");
+        user.put("mail", userName + "@wrensecurity.org");
+        user.put("password", "FooBar123");
+        // Source of the plain DN mapping, sent with every variant to keep the payload the same
+        user.put("ldapDn", LdapShell.accountDn(userName));
+
+        return request("/openidm/managed/user/" + userName)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(user)))
+                .build();
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import org.wrensecurity.wrenidm.test.base.LoadGenerator;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Latency of task inbox queries with a growing population of open approval tasks.
+ *
+ * <p>The workflow case is started with the {@code inbox} workflow directory, which deploys the {@code inboxApproval}
+ * process with an approval task for the candidate group passed on start. Open tasks are spread across
+ * {@code benchmark.inbox.groups} candidate groups ({@code openidm-admin} among them). Backlog sizes are set with
+ * {@code benchmark.inbox.sizes} (e.g. {@code 10000,100000,500000}), number of timed lookups per size with
+ * {@code benchmark.inbox.lookups}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TaskInboxBenchmark extends BaseWrenidmTest {
+
+    private static final String INBOX_WORKFLOW_DATA = """
+            {
+              "_key": "inboxApproval",
+              "candidateGroup": "%s"
+            }
+            """;
+
+    private final List<Integer> backlogSizes = BenchmarkProperties.getIntList("benchmark.inbox.sizes", "10000,100000");
+
+    private final int groups = BenchmarkProperties.getInt("benchmark.inbox.groups", 50);
+
+    private final BenchmarkReport report = new BenchmarkReport("task-inbox");
+
+    private final Random random = new Random(42);
+
+    private AtomicReferenceArray<String> processInstanceIds;
+
+    private int openTasks;
+
+    @BeforeAll
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("workflow")
+                .withEnv("WORKFLOW_DIR", "./inbox")
+                .withReset(EnvironmentResets.processInstances()));
+        processInstanceIds = new AtomicReferenceArray<>(backlogSizes.stream().mapToInt(Integer::intValue).max().orElse(0));
+        report.getRoot().put("candidateGroups", groups);
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        report.write();
+        EnvironmentPool.release(environment);
+    }
+
+    public List<Integer> backlogSizes() {
+        return backlogSizes;
+    }
+
+    @ParameterizedTest(name = "{0} open tasks")
+    @MethodSource("backlogSizes")
+    public void testInboxQueries(int backlog) throws Exception {
+        populate(backlog);
+        int lookups = BenchmarkProperties.getInt("benchmark.inbox.lookups", 100);
+
+        ObjectNode result = report.addResult();
+        result.put("openTasks", backlog);
+        measure(result.putObject("taskFilteredQuery"), lookups, backlog, processInstanceId ->
+                "/openidm/workflow/taskinstance?_queryId=filtered-query&processInstanceId=" + processInstanceId
+                        + "&taskDefinitionKey=approval");
+        measure(result.putObject("processHistoryRead"), lookups, backlog, processInstanceId ->
+                "/openidm/workflow/processinstance/history/" + processInstanceId);
+    }
+
+    /**
+     * Start process instances until the backlog reaches the given number of open tasks.
+     */
+    private void populate(int backlog) throws Exception {
+        if (backlog <= openTasks) {
+            return;
+        }
+        final int offset = openTasks;
+        LoadGenerator.Result load = LoadGenerator.forRequests(httpClient, index -> HttpRequest.newBuilder()
+                        .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processinstance?_action=create"))
+                        .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(INBOX_WORKFLOW_DATA.formatted(candidateGroup(offset + index))))
+                        .build())
+                .withConcurrency(BenchmarkProperties.getInt("benchmark.inbox.loadConcurrency", 16))
+                .withRequests(backlog - offset)
+                .withExpectedStatus(201)
+                .withCompletionTimeout(Duration.ofHours(4))
+                .withResponseListener((index, response) -> processInstanceIds.set(offset + index,
+                        mapper.readTree(response.body()).path("_id").asString()))
+                .run();
+        assertEquals(0, load.getErrors(), load.getFirstError());
+        openTasks = backlog;
+    }
+
+    /**
+     * Time lookups of randomly chosen process instances started so far.
+     */
+    private void measure(ObjectNode result, int lookups, int backlog, Function<String, String> pathFactory)
+            throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        for (int i = 0; i < lookups; i++) {
+            String path = pathFactory.apply(processInstanceIds.get(random.nextInt(backlog)));
+            HttpRequest req = HttpRequest.newBuilder()
+                    .uri(URI.create(environment.getBaseUrl() + path))
+                    .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                    .build();
+            long startNanos = System.nanoTime();
+            HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
+            latency.record(System.nanoTime() - startNanos);
+            assertEquals(200, resp.statusCode(), resp.body());
+            if (path.contains("_queryId=")) {
+                assertEquals(1, mapper.readTree(resp.body()).path("resultCount").asInt(), path);
+            }
+        }
+        latency.writeTo(result);
+    }
+
+    private String candidateGroup(int index) {
+        return index % groups == 0 ? "openidm-admin" : "inbox-group-" + index % groups;
+    }
+
+}
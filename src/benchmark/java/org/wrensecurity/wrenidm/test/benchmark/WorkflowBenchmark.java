@@ -0,0 +1,71 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+
+/**
+ * Workflow process instance creation ({@code onboarding} process).
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WorkflowBenchmark extends BaseWrenidmBenchmark {
+
+    private static final String ONBOARDING_WORKFLOW_DATA = """
+            {
+              "_key": "onboarding",
+              "userName": "%s",
+              "workforceId": "123456",
+              "employeeType": "INTERNAL",
+              "givenName": "John",
+              "sn": "Doe",
+              "mail": "john.doe@wrensecurity.org"
+            }
+            """;
+
+    private final AtomicLong instanceSequence = new AtomicLong();
+
+    @Override
+    protected EnvironmentSpec environmentSpec() {
+        return EnvironmentSpec.forCase("workflow")
+                .withReset(EnvironmentResets.processInstances())
+                .withReset(EnvironmentResets.managedObjects("user"));
+    }
+
+    @Benchmark
+    public String processInstanceCreate() throws Exception {
+        String userName = "onboarding-benchmark" + instanceSequence.incrementAndGet();
+        return send(request("/openidm/workflow/processinstance?_action=create")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ONBOARDING_WORKFLOW_DATA.formatted(userName)))
+                .build(), 201);
+    }
+
+}
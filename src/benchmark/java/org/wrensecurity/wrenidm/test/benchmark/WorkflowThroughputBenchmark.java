@@ -0,0 +1,327 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.wrensecurity.wrenidm.test.base.Await;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.HrCsvGenerator;
+import org.wrensecurity.wrenidm.test.base.LatencyHistogram;
+import org.wrensecurity.wrenidm.test.base.LoadGenerator;
+import org.wrensecurity.wrenidm.test.base.ManagedUserLoader;
+import org.wrensecurity.wrenidm.test.base.QueryResultStream;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Throughput of the workflow engine under a burst of {@code onboarding} and {@code userRole} process instances.
+ *
+ * <p>Instances are launched at a constant rate while a dispatcher polls open approval tasks and a pool of workers
+ * claims and approves them. Reported are completed instances per second, latency of the task query by the size of
+ * the open task backlog, latency of claim and complete actions and the time from task completion until the decision
+ * is visible in the process history (sampled). Settings: {@code benchmark.workflow.instances},
+ * {@code benchmark.workflow.launchRate}, {@code benchmark.workflow.workers} and
+ * {@code benchmark.workflow.historySample} (every n-th instance is probed for history). History probes run on
+ * their own threads, so that waiting for the history does not slow down the workers.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class WorkflowThroughputBenchmark extends BaseBenchmarkTest {
+
+    private static final String ROLE_ID = "benchmark";
+
+    private static final String ROLE_USER_PREFIX = "wfrole";
+
+    private static final String ONBOARDING_USER_PREFIX = "wfonboard";
+
+    private static final int MAX_COMPLETION_WAIT_MINUTES = 30;
+
+    private static final int BACKLOG_BUCKETS = 10;
+
+    private static final String ONBOARDING_WORKFLOW_DATA = """
+            {
+              "_key": "onboarding",
+              "userName": "%s",
+              "workforceId": "123456",
+              "employeeType": "INTERNAL",
+              "givenName": "John",
+              "sn": "Doe",
+              "mail": "%s@wrensecurity.org"
+            }
+            """;
+
+    private static final String USER_ROLE_WORKFLOW_DATA = """
+            {
+              "_key": "userRole",
+              "userId": "managed/user/%s",
+              "roleId": "managed/role/%s"
+            }
+            """;
+
+    private static final String CLAIM_DATA = """
+            {
+              "userId": "openidm-admin"
+            }
+            """;
+
+    private static final String APPROVAL_DATA = """
+            {
+              "result": "approve"
+            }
+            """;
+
+    private final int instances = BenchmarkProperties.getInt("benchmark.workflow.instances", 1000);
+
+    private final BenchmarkReport report = new BenchmarkReport("workflow-throughput");
+
+    private final Map<Integer, LatencyHistogram> taskQueryLatencyByBacklog = new TreeMap<>();
+
+    private final LatencyHistogram taskQueryLatency = new LatencyHistogram();
+
+    private final LatencyHistogram claimLatency = new LatencyHistogram();
+
+    private final LatencyHistogram completeLatency = new LatencyHistogram();
+
+    private final LatencyHistogram historyLatency = new LatencyHistogram();
+
+    private final AtomicInteger completedInstances = new AtomicInteger();
+
+    private final AtomicReference<Throwable> workerFailure = new AtomicReference<>();
+
+    private final ExecutorService historyExecutor = Executors.newCachedThreadPool();
+
+    private final Queue<Future<?>> historyProbes = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean finished;
+
+    private int peakBacklog;
+
+    @BeforeAll
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("workflow")
+                .withReset(EnvironmentResets.processInstances())
+                .withReset(EnvironmentResets.managedObjects("user"))
+                .withReset(EnvironmentResets.managedObjects("role")));
+
+        HttpRequest createRoleReq = request("/openidm/managed/role/" + ROLE_ID)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"name\": \"" + ROLE_ID + "\"}"))
+                .build();
+        assertEquals(201, httpClient.send(createRoleReq, HttpResponse.BodyHandlers.ofString()).statusCode());
+
+        // Every userRole instance assigns the role to a different user
+        ManagedUserLoader.forEnvironment(environment, ROLE_USER_PREFIX).loadWithRest((instances + 1) / 2);
+    }
+
+    @AfterAll
+    public void teardown() throws Exception {
+        historyExecutor.shutdownNow();
+        report.write();
+        EnvironmentPool.release(environment);
+    }
+
+    @Test
+    public void testApprovalThroughput() throws Exception {
+        int workers = BenchmarkProperties.getInt("benchmark.workflow.workers", 8);
+        int historySample = BenchmarkProperties.getInt("benchmark.workflow.historySample", 20);
+        BlockingQueue<JsonNode> tasks = new LinkedBlockingQueue<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers + 2);
+        long startNanos = System.nanoTime();
+        try {
+            Future<?> dispatcher = executor.submit(() -> dispatchTasks(tasks));
+            for (int worker = 0; worker < workers; worker++) {
+                executor.submit(() -> {
+                    try {
+                        return completeTasks(tasks, historySample);
+                    } catch (Exception | AssertionError e) {
+                        workerFailure.compareAndSet(null, e);
+                        finished = true;
+                        throw e;
+                    }
+                });
+            }
+
+            LoadGenerator.Result launches = LoadGenerator.forRequests(httpClient, this::createInstanceRequest)
+                    .withRate(BenchmarkProperties.getDouble("benchmark.workflow.launchRate", 50))
+                    .withRequests(instances)
+                    .withExpectedStatus(201)
+                    .run();
+            assertEquals(0, launches.getErrors(), launches.getFirstError());
+            launches.writeTo(report.getRoot().putObject("launch"));
+
+            dispatcher.get(MAX_COMPLETION_WAIT_MINUTES, TimeUnit.MINUTES);
+        } finally {
+            finished = true;
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (workerFailure.get() != null) {
+            throw new AssertionError("Task completion failed", workerFailure.get());
+        }
+        for (Future<?> probe : historyProbes) {
+            probe.get();
+        }
+
+        ObjectNode root = report.getRoot();
+        root.put("instances", instances);
+        root.put("workers", workers);
+        root.put("completedInstances", completedInstances.get());
+        root.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        root.put("instancesPerSecond", completedInstances.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        root.put("peakBacklog", peakBacklog);
+        taskQueryLatency.writeTo(root.putObject("taskQueryLatency"));
+        ArrayNode byBacklog = root.putArray("taskQueryLatencyByBacklog");
+        int bucketSize = backlogBucketSize();
+        taskQueryLatencyByBacklog.forEach((bucket, latency) -> latency.writeTo(byBacklog.addObject()
+                .put("backlogFrom", bucket * bucketSize)
+                .put("backlogTo", (bucket + 1) * bucketSize - 1)));
+        claimLatency.writeTo(root.putObject("claimLatency"));
+        completeLatency.writeTo(root.putObject("completeLatency"));
+        historyLatency.writeTo(root.putObject("completionToHistoryLatency"));
+
+        assertEquals(instances, completedInstances.get());
+    }
+
+    /**
+     * Poll open approval tasks and hand over the new ones to workers until all instances are completed.
+     */
+    private Void dispatchTasks(BlockingQueue<JsonNode> tasks) throws Exception {
+        Set<String> dispatched = new HashSet<>();
+        HttpRequest queryReq = request("/openidm/workflow/taskinstance?_queryId=filtered-query&taskDefinitionKey=approval")
+                .build();
+        while (!finished && completedInstances.get() < instances) {
+            long queryStartNanos = System.nanoTime();
+            HttpResponse<QueryResultStream> resp = httpClient.send(queryReq, QueryResultStream.bodyHandler(mapper));
+            int backlog = 0;
+            try (QueryResultStream results = resp.body()) {
+                assertEquals(200, resp.statusCode());
+                while (results.hasNext()) {
+                    JsonNode task = results.next();
+                    backlog++;
+                    if (dispatched.add(task.path("_id").asString())) {
+                        tasks.add(task);
+                    }
+                }
+            }
+            long queryNanos = System.nanoTime() - queryStartNanos;
+            taskQueryLatency.record(queryNanos);
+            taskQueryLatencyByBacklog.computeIfAbsent(backlog / backlogBucketSize(), bucket -> new LatencyHistogram())
+                    .record(queryNanos);
+            peakBacklog = Math.max(peakBacklog, backlog);
+            if (backlog == 0) {
+                Thread.sleep(50);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Claim (if not yet assigned) and approve tasks from the queue.
+     */
+    private Void completeTasks(BlockingQueue<JsonNode> tasks, int historySample) throws Exception {
+        while (!finished) {
+            JsonNode task = tasks.poll(100, TimeUnit.MILLISECONDS);
+            if (task == null) {
+                continue;
+            }
+            String taskPath = "/openidm/workflow/taskinstance/" + task.path("_id").asString();
+            if (task.path("assignee").isNull() || task.path("assignee").isMissingNode()) {
+                long claimStartNanos = System.nanoTime();
+                HttpResponse<String> claimResp = httpClient.send(request(taskPath + "?_action=claim")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(CLAIM_DATA))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                claimLatency.record(System.nanoTime() - claimStartNanos);
+                assertEquals(200, claimResp.statusCode(), claimResp.body());
+            }
+
+            long completeStartNanos = System.nanoTime();
+            HttpResponse<String> completeResp = httpClient.send(request(taskPath + "?_action=complete")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(APPROVAL_DATA))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            long completedNanos = System.nanoTime();
+            completeLatency.record(completedNanos - completeStartNanos);
+            assertEquals(200, completeResp.statusCode(), completeResp.body());
+
+            if (completedInstances.incrementAndGet() % historySample == 0) {
+                String processInstanceId = task.path("processInstanceId").asString();
+                historyProbes.add(historyExecutor.submit(() -> {
+                    awaitHistory(processInstanceId, completedNanos);
+                    return null;
+                }));
+            }
+        }
+        return null;
+    }
+
+    private void awaitHistory(String processInstanceId, long completedNanos) throws Exception {
+        HttpRequest historyReq = request("/openidm/workflow/processinstance/history/" + processInstanceId).build();
+        Await.until("history decision of process instance " + processInstanceId,
+                        () -> httpClient.send(historyReq, HttpResponse.BodyHandlers.ofString()),
+                        resp -> resp.statusCode() == 200
+                                && mapper.readTree(resp.body()).path("processVariables").path("decision").isString())
+                .atMost(Duration.ofMinutes(1))
+                .withBackoff(Duration.ofMillis(10), Duration.ofMillis(250), 1.5)
+                .describedAs(resp -> "status=" + resp.statusCode() + ", response body: " + resp.body())
+                .get();
+        historyLatency.record(System.nanoTime() - completedNanos);
+    }
+
+    private HttpRequest createInstanceRequest(int index) {
+        String data = index % 2 == 0
+                ? ONBOARDING_WORKFLOW_DATA.formatted(ONBOARDING_USER_PREFIX + index, ONBOARDING_USER_PREFIX + index)
+                : USER_ROLE_WORKFLOW_DATA.formatted(
+                        HrCsvGenerator.uid(ROLE_USER_PREFIX, index / 2 + 1), ROLE_ID);
+        return request("/openidm/workflow/processinstance?_action=create")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(data))
+                .build();
+    }
+
+    private int backlogBucketSize() {
+        return Math.max(1, instances / BACKLOG_BUCKETS);
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.WRENIDM_CONTAINER_NAME;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Frame;
+import java.io.IOException;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.testcontainers.DockerClientFactory;
+
+/**
+ * Follows a JSON audit log file inside the Wren:IDM container ({@code tail -F} executed through the Docker API) and
+ * fires a {@link CompletionSignal} for every new audit event matching the filter.
+ *
+ * <p>The tail is only a hint to speed up {@link Await} - the awaited state is always verified through REST.
+ * When the tail cannot be started, the signal simply never fires. Closing the tail kills the {@code tail} process
+ * inside the container, so that it does not outlive the test in a pooled environment.
+ */
+public final class AuditLogTail implements AutoCloseable {
+
+    private static final Logger logger = System.getLogger(AuditLogTail.class.getName());
+
+    static final String AUDIT_LOG_DIR = "/opt/wrenidm/audit";
+
+    private static final int KILL_TIMEOUT_SECONDS = 5;
+
+    private final CompletionSignal signal = new CompletionSignal();
+
+    private final Pattern filter;
+
+    private final DockerClient client;
+
+    private final String containerId;
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    private ResultCallback.Adapter<Frame> output;
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final AtomicLong events = new AtomicLong();
+
+    // PID of the tail process inside the container (first line of the output)
+    private volatile String pid;
+
+    private AuditLogTail(Pattern filter, DockerClient client, String containerId) {
+        this.filter = filter;
+        this.client = client;
+        this.containerId = containerId;
+    }
+
+    /**
+     * Follow audit events of the given topic (e.g. {@code sync}, {@code recon}, {@code activity}).
+     */
+    public static AuditLogTail open(WrenidmEnvironment environment, String topic) {
+        return open(environment, topic, null);
+    }
+
+    /**
+     * Follow audit events of the given topic matching the filter.
+     */
+    public static AuditLogTail open(WrenidmEnvironment environment, String topic, Pattern filter) {
+        String containerId = environment.getServiceContainer(WRENIDM_CONTAINER_NAME).getContainerId();
+        AuditLogTail tail = new AuditLogTail(filter, DockerClientFactory.instance().client(), containerId);
+        try {
+            String execId = tail.client.execCreateCmd(containerId)
+                    .withAttachStdout(true)
+                    .withCmd("sh", "-c", "echo $$; exec tail -n 0 -F " + AUDIT_LOG_DIR + "/" + topic + ".audit.json")
+                    .exec()
+                    .getId();
+            tail.output = tail.client.execStartCmd(execId).exec(new ResultCallback.Adapter<>() {
+                @Override
+                public void onNext(Frame frame) {
+                    tail.onOutput(new String(frame.getPayload(), StandardCharsets.UTF_8));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Unable to follow " + topic + " audit log, falling back to polling", e);
+        }
+        return tail;
+    }
+
+    public CompletionSignal getSignal() {
+        return signal;
+    }
+
+    /**
+     * Whether the tail process is running, events written before are not observed.
+     */
+    public boolean isStarted() {
+        return started.getCount() == 0;
+    }
+
+    /**
+     * Number of matching audit events observed since the tail was started.
+     */
+    public long getEventCount() {
+        return events.get();
+    }
+
+    private synchronized void onOutput(String chunk) {
+        buffer.append(chunk);
+        int end;
+        while ((end = buffer.indexOf("\n")) >= 0) {
+            String line = buffer.substring(0, end);
+            buffer.delete(0, end + 1);
+            if (pid == null) {
+                pid = line.strip();
+                started.countDown();
+            } else if (filter == null || filter.matcher(line).find()) {
+                events.incrementAndGet();
+                signal.fire();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (output == null) {
+            return;
+        }
+        try {
+            // Tail closed right after opening may not have reported its PID yet
+            if (started.await(KILL_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                String execId = client.execCreateCmd(containerId)
+                        .withCmd("kill", pid)
+                        .exec()
+                        .getId();
+                client.execStartCmd(execId)
+                        .exec(new ResultCallback.Adapter<>())
+                        .awaitCompletion(KILL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Unable to stop audit log tail " + pid, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                output.close();
+            } catch (IOException e) {
+                // stream already closed
+            }
+        }
+    }
+
+}
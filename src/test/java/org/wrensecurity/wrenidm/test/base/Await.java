@@ -0,0 +1,134 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Repeated probing of an asynchronous outcome with adaptive backoff. First probes follow quickly after each
+ * other and the interval grows up to the configured maximum. When a {@link CompletionSignal} is attached,
+ * the next probe is issued as soon as the signal fires (and the interval is reset).
+ *
+ * <pre>
+ * HttpResponse&lt;String&gt; response = Await.until("process completion", () -&gt; send(request), this::isCompleted)
+ *         .atMost(Duration.ofSeconds(60))
+ *         .get();
+ * </pre>
+ */
+public final class Await<T> {
+
+    private final String description;
+
+    private final Callable<T> probe;
+
+    private final Predicate<T> condition;
+
+    private Duration timeout = Duration.ofSeconds(60);
+
+    private long initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(25);
+
+    private long maxDelayNanos = TimeUnit.SECONDS.toNanos(1);
+
+    private double multiplier = 1.5;
+
+    private CompletionSignal signal;
+
+    private Function<T, String> describer = String::valueOf;
+
+    private Await(String description, Callable<T> probe, Predicate<T> condition) {
+        this.description = description;
+        this.probe = probe;
+        this.condition = condition;
+    }
+
+    /**
+     * @param description description of the awaited outcome used in the timeout message
+     * @param probe       probe returning the current state
+     * @param condition   condition the state has to meet
+     */
+    public static <T> Await<T> until(String description, Callable<T> probe, Predicate<T> condition) {
+        return new Await<>(description, probe, condition);
+    }
+
+    public Await<T> atMost(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    public Await<T> withBackoff(Duration initialDelay, Duration maxDelay, double multiplier) {
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.multiplier = multiplier;
+        return this;
+    }
+
+    public Await<T> withSignal(CompletionSignal signal) {
+        this.signal = signal;
+        return this;
+    }
+
+    /**
+     * Rendering of the last probed state in the timeout message.
+     */
+    public Await<T> describedAs(Function<T, String> describer) {
+        this.describer = describer;
+        return this;
+    }
+
+    /**
+     * Probe until the condition is met.
+     *
+     * @return the first state meeting the condition
+     * @throws AssertionError when the condition is not met within the timeout
+     */
+    public T get() throws Exception {
+        final long deadlineNanos = System.nanoTime() + timeout.toNanos();
+
+        long delayNanos = initialDelayNanos;
+        int attempts = 0;
+        T state;
+        while (true) {
+            long generation = signal != null ? signal.getGeneration() : 0;
+            state = probe.call();
+            attempts++;
+            if (condition.test(state)) {
+                return state;
+            }
+
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                break;
+            }
+            long waitNanos = Math.min(delayNanos, remainingNanos);
+            if (signal != null && signal.awaitChange(generation, waitNanos)) {
+                delayNanos = initialDelayNanos;
+            } else {
+                if (signal == null) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+                delayNanos = Math.min((long) (delayNanos * multiplier), maxDelayNanos);
+            }
+        }
+
+        throw new AssertionError("Timed out after " + timeout.toSeconds() + "s (" + attempts + " attempts) waiting for "
+                + description + ". Last state: " + describer.apply(state));
+    }
+
+}
@@ -19,7 +19,6 @@ import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.Base64;
 import java.util.Map;
-import org.testcontainers.containers.ComposeContainer;
 import org.testcontainers.containers.wait.strategy.HttpWaitStrategy;
 import org.testcontainers.containers.wait.strategy.Wait;
 import tools.jackson.core.type.TypeReference;
@@ -32,7 +31,8 @@ public abstract class BaseWrenidmTest {
     // Default Wren:IDM Docker container name
     protected static final String WRENIDM_CONTAINER_NAME = "wrenidm";
 
-    protected static final String WRENIDM_BASE_URL = "http://wrenidm.wrensecurity.local:8080";
+    // Default Wren:IDM HTTP port inside the container (mapped to a dynamic host port)
+    protected static final int WRENIDM_PORT = 8080;
 
     protected static final String ANONYMOUS_AUTHORIZATION_HEADER_VALUE = "Basic " + Base64.getEncoder()
             .encodeToString("anonymous:anonymous".getBytes());
@@ -42,27 +42,24 @@ public abstract class BaseWrenidmTest {
 
     protected static final ObjectMapper mapper = new ObjectMapper();
 
-    protected static final HttpClient httpClient = HttpClient.newHttpClient();
+    // Every call is recorded into the per-route summary written at the end of the run
+    protected static final HttpClient httpClient = new InstrumentedHttpClient(HttpClient.newHttpClient(),
+            RouteMetrics.shared());
 
-    protected ComposeContainer environment;
+    protected WrenidmEnvironment environment;
 
-    protected static final HttpWaitStrategy WRENIDM_STARTUP_WAIT_STRATEGY = Wait
-            .forHttp("/openidm/info/ping")
-            .withHeader("Authorization", ANONYMOUS_AUTHORIZATION_HEADER_VALUE)
-            .forStatusCode(200)
-            .forResponsePredicate(response -> {
-                Map<String, String> responseBody = mapper.readValue(response,
-                        new TypeReference<Map<String, String>>() {});
-                return "ACTIVE_READY".equals(responseBody.get("state"));
-            })
-            .withReadTimeout(Duration.ofMinutes(5));
-
-    protected static HttpWaitStrategy provisionerWaitStrategy(String provisionerName) {
-                return Wait
-                        .forHttp("/openidm/system/" + provisionerName + "?_action=test")
-                        .withHeader("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
-                        .withHeader("Content-Type", "application/json")
-                        .forStatusCode(200)
-                        .withReadTimeout(Duration.ofMinutes(2));
-        }
+    // Wait strategies keep reference to their target, so each environment needs its own instance
+    protected static HttpWaitStrategy wrenidmStartupWaitStrategy() {
+        return Wait
+                .forHttp("/openidm/info/ping")
+                .forPort(WRENIDM_PORT)
+                .withHeader("Authorization", ANONYMOUS_AUTHORIZATION_HEADER_VALUE)
+                .forStatusCode(200)
+                .forResponsePredicate(response -> {
+                    Map<String, String> responseBody = mapper.readValue(response,
+                            new TypeReference<Map<String, String>>() {});
+                    return "ACTIVE_READY".equals(responseBody.get("state"));
+                })
+                .withReadTimeout(Duration.ofMinutes(5));
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification that an awaited condition may have changed (e.g. a new audit event was written). Used by
+ * {@link Await} to wake up before its backoff interval elapses.
+ */
+public final class CompletionSignal {
+
+    private long generation;
+
+    public synchronized void fire() {
+        generation++;
+        notifyAll();
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Wait until the signal is fired after the given generation was observed.
+     *
+     * @return {@code true} when the signal was fired, {@code false} on timeout
+     */
+    public synchronized boolean awaitChange(long observedGeneration, long timeoutNanos) throws InterruptedException {
+        final long deadlineNanos = System.nanoTime() + timeoutNanos;
+        while (generation == observedGeneration) {
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+        }
+        return true;
+    }
+
+}
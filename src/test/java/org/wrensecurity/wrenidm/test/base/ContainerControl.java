@@ -0,0 +1,89 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Frame;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.testcontainers.DockerClientFactory;
+
+/**
+ * Lifecycle operations on containers of a running environment (e.g. restarting Wren:IDM node) through the
+ * Testcontainers Docker client.
+ */
+public final class ContainerControl {
+
+    private ContainerControl() {
+    }
+
+    /**
+     * Stop the container gracefully, killing it after the timeout.
+     */
+    public static void stop(String containerId, Duration timeout) {
+        client().stopContainerCmd(containerId).withTimeout((int) timeout.toSeconds()).exec();
+    }
+
+    /**
+     * Kill the container without a graceful shutdown.
+     */
+    public static void kill(String containerId) {
+        client().killContainerCmd(containerId).exec();
+    }
+
+    public static void start(String containerId) {
+        client().startContainerCmd(containerId).exec();
+    }
+
+    /**
+     * Time of the last container start.
+     */
+    public static Instant getStartedAt(String containerId) {
+        return Instant.parse(client().inspectContainerCmd(containerId).exec().getState().getStartedAt());
+    }
+
+    /**
+     * Log lines (both output streams) written since the given time, each prefixed with its timestamp and a space.
+     */
+    public static List<String> getLogs(String containerId, Instant since) throws InterruptedException {
+        StringBuilder output = new StringBuilder();
+        client().logContainerCmd(containerId)
+                .withStdOut(true)
+                .withStdErr(true)
+                .withTimestamps(true)
+                .withSince((int) since.getEpochSecond())
+                .exec(new ResultCallback.Adapter<>() {
+                    @Override
+                    public void onNext(Frame frame) {
+                        synchronized (output) {
+                            output.append(new String(frame.getPayload(), StandardCharsets.UTF_8));
+                        }
+                    }
+                })
+                .awaitCompletion();
+        synchronized (output) {
+            return output.toString().lines().toList();
+        }
+    }
+
+    private static DockerClient client() {
+        return DockerClientFactory.instance().client();
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.ContainerState;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Periodic memory samples of the Java process running in a compose service container.
+ *
+ * <p>Every sample reads resident set size of the process from {@code /proc}, memory usage of the container
+ * cgroup (the value reported by {@code docker stats}) and used heap from {@code jcmd GC.heap_info}. Heap is
+ * omitted when {@code jcmd} is not available in the image. Peak RSS ({@code VmHWM}) is reset when sampling
+ * starts, so that it covers only the sampled operation. When the reset is not permitted, peak RSS is the maximum of
+ * the sampled {@code VmRSS} values instead.
+ */
+public final class ContainerMemorySampler implements AutoCloseable {
+
+    private static final String FIND_JAVA_PID = "for p in /proc/[0-9]*; do"
+            + " if tr '\\0' ' ' < $p/cmdline 2>/dev/null | grep -q '^[^ ]*java '; then echo ${p#/proc/}; break; fi;"
+            + " done";
+
+    private static final Pattern STATUS_KB = Pattern.compile("^(VmRSS|VmHWM):\\s+(\\d+) kB", Pattern.MULTILINE);
+
+    private static final Pattern CGROUP_BYTES = Pattern.compile("^cgroup (\\d+)", Pattern.MULTILINE);
+
+    private static final Pattern HEAP_USED_KB = Pattern.compile("total \\d+K, used (\\d+)K");
+
+    private final ContainerState container;
+
+    private final String pid;
+
+    private final long startNanos = System.nanoTime();
+
+    private final List<Sample> samples = new ArrayList<>();
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    // Whether VmHWM was reset at the start of sampling and can be used as the peak
+    private final boolean peakReset;
+
+    // Reason the peak could not be reset, null when it was
+    private final String peakResetError;
+
+    private long peakRssKb;
+
+    private ContainerMemorySampler(ContainerState container, String pid, String peakResetError,
+            long intervalMillis) {
+        this.container = container;
+        this.pid = pid;
+        this.peakReset = peakResetError == null;
+        this.peakResetError = peakResetError;
+        this.thread = new Thread(() -> {
+            while (running) {
+                sample();
+                try {
+                    TimeUnit.MILLISECONDS.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "memory-sampler");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Start sampling the Java process of the given service.
+     */
+    public static ContainerMemorySampler start(WrenidmEnvironment environment, String serviceName,
+            long intervalMillis) throws Exception {
+        ContainerState container = environment.getServiceContainer(serviceName);
+        String pid = container.execInContainer("sh", "-c", FIND_JAVA_PID).getStdout().strip();
+        if (pid.isEmpty()) {
+            throw new IllegalStateException("No Java process found in service " + serviceName);
+        }
+        // Reset peak resident set size (VmHWM)
+        Container.ExecResult reset = container.execInContainer("sh", "-c", "echo 5 > /proc/" + pid + "/clear_refs");
+        String resetError = reset.getExitCode() == 0 ? null
+                : "Unable to reset peak RSS of " + serviceName + ": " + reset.getStderr().strip();
+        ContainerMemorySampler sampler = new ContainerMemorySampler(container, pid, resetError, intervalMillis);
+        sampler.thread.start();
+        return sampler;
+    }
+
+    private void sample() {
+        try {
+            Container.ExecResult result = container.execInContainer("sh", "-c",
+                    "cat /proc/" + pid + "/status;"
+                    + " echo cgroup $(cat /sys/fs/cgroup/memory.current 2>/dev/null"
+                    + " || cat /sys/fs/cgroup/memory/memory.usage_in_bytes);"
+                    + " jcmd " + pid + " GC.heap_info 2>/dev/null");
+            String output = result.getStdout();
+            long rssKb = -1;
+            Matcher status = STATUS_KB.matcher(output);
+            while (status.find()) {
+                if ("VmRSS".equals(status.group(1))) {
+                    rssKb = Long.parseLong(status.group(2));
+                } else if (peakReset) {
+                    peakRssKb = Math.max(peakRssKb, Long.parseLong(status.group(2)));
+                }
+            }
+            Matcher cgroup = CGROUP_BYTES.matcher(output);
+            long cgroupBytes = cgroup.find() ? Long.parseLong(cgroup.group(1)) : -1;
+            long heapUsedKb = -1;
+            Matcher heap = HEAP_USED_KB.matcher(output);
+            while (heap.find()) {
+                heapUsedKb = Math.max(heapUsedKb, 0) + Long.parseLong(heap.group(1));
+            }
+            synchronized (samples) {
+                samples.add(new Sample(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                        rssKb < 0 ? -1 : rssKb * 1024, cgroupBytes, heapUsedKb < 0 ? -1 : heapUsedKb * 1024));
+            }
+        } catch (Exception e) {
+            // container busy or stopped, skip the sample
+        }
+    }
+
+    public List<Sample> getSamples() {
+        synchronized (samples) {
+            return List.copyOf(samples);
+        }
+    }
+
+    /**
+     * Peak resident set size since the start of sampling in bytes ({@code VmHWM}, or the maximum of sampled RSS
+     * when the peak could not be reset).
+     */
+    public long getPeakRssBytes() {
+        return Math.max(peakRssKb * 1024, getSamples().stream().mapToLong(Sample::rssBytes).max().orElse(-1));
+    }
+
+    public long getPeakHeapUsedBytes() {
+        return getSamples().stream().mapToLong(Sample::heapUsedBytes).max().orElse(-1);
+    }
+
+    public long getPeakCgroupBytes() {
+        return getSamples().stream().mapToLong(Sample::cgroupBytes).max().orElse(-1);
+    }
+
+    /**
+     * Write peak values and all samples in megabytes (-1 when not available), together with the reason the peak
+     * RSS is sampled when it could not be reset.
+     */
+    public ObjectNode writeTo(ObjectNode node) {
+        node.put("peakRssMb", megabytes(getPeakRssBytes()));
+        node.put("peakRssSampled", !peakReset);
+        if (peakResetError != null) {
+            node.put("peakResetError", peakResetError);
+        }
+        node.put("peakHeapUsedMb", megabytes(getPeakHeapUsedBytes()));
+        node.put("peakContainerMb", megabytes(getPeakCgroupBytes()));
+        ArrayNode timeline = node.putArray("samples");
+        for (Sample sample : getSamples()) {
+            timeline.addObject()
+                    .put("millis", sample.millis())
+                    .put("rssMb", megabytes(sample.rssBytes()))
+                    .put("heapUsedMb", megabytes(sample.heapUsedBytes()))
+                    .put("containerMb", megabytes(sample.cgroupBytes()));
+        }
+        return node;
+    }
+
+    /**
+     * Stop sampling after taking the final sample.
+     */
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sample();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("peak RSS %.1f MB, peak heap %.1f MB, peak container %.1f MB",
+                megabytes(getPeakRssBytes()), megabytes(getPeakHeapUsedBytes()), megabytes(getPeakCgroupBytes()));
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes < 0 ? -1 : bytes / (1024.0 * 1024.0);
+    }
+
+    /**
+     * @param millis        time since the start of sampling
+     * @param rssBytes      resident set size of the Java process
+     * @param cgroupBytes   memory usage of the container
+     * @param heapUsedBytes used Java heap
+     */
+    public record Sample(long millis, long rssBytes, long cgroupBytes, long heapUsedBytes) {
+    }
+
+}
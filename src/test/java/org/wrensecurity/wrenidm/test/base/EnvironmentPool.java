@@ -0,0 +1,158 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pool of running Wren:IDM environments shared across test classes.
+ *
+ * <p>Environments are keyed by {@link EnvironmentSpec#getKey()}. A released environment stays running and is
+ * handed over (after executing the resets of the new owner) to the next class with a compatible specification.
+ * Number of idle environments kept alive is limited by {@code wrenidm.pool.size} system property and reuse can
+ * be disabled completely with {@code -Dwrenidm.pool.reuse=false}.
+ */
+public final class EnvironmentPool {
+
+    private static final Logger logger = System.getLogger(EnvironmentPool.class.getName());
+
+    private static final int MAX_LIVE_ENVIRONMENTS = Integer.getInteger("wrenidm.pool.size", 2);
+
+    private static final boolean REUSE_ENVIRONMENTS = !"false".equals(System.getProperty("wrenidm.pool.reuse"));
+
+    // Idle environments in the order of their release (least recently used first)
+    private static final Map<WrenidmEnvironment, String> idle = new LinkedHashMap<>();
+
+    private static final List<WrenidmEnvironment> leased = new ArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(EnvironmentPool::shutdown, "wrenidm-environment-pool"));
+    }
+
+    private EnvironmentPool() {
+    }
+
+    /**
+     * Lease an environment matching the given specification, starting a new one when no idle environment
+     * is available.
+     */
+    public static WrenidmEnvironment acquire(EnvironmentSpec spec) throws Exception {
+        WrenidmEnvironment environment;
+        while ((environment = takeIdle(spec.getKey())) != null) {
+            if (environment.isReady()) {
+                try {
+                    environment.reset(spec);
+                    return environment;
+                } catch (Exception e) {
+                    logger.log(Level.WARNING, "Discarding environment " + environment + " after failed reset", e);
+                }
+            }
+            discard(environment);
+        }
+
+        evictIdle(MAX_LIVE_ENVIRONMENTS - 1);
+        environment = new WrenidmEnvironment(spec);
+        synchronized (EnvironmentPool.class) {
+            leased.add(environment);
+        }
+        try {
+            environment.start();
+        } catch (Exception | Error e) {
+            discard(environment);
+            throw e;
+        }
+        return environment;
+    }
+
+    /**
+     * Return the leased environment back to the pool.
+     */
+    public static void release(WrenidmEnvironment environment) {
+        if (environment == null) {
+            return;
+        }
+        if (!REUSE_ENVIRONMENTS) {
+            discard(environment);
+            return;
+        }
+        synchronized (EnvironmentPool.class) {
+            if (!leased.remove(environment)) {
+                return;
+            }
+            idle.put(environment, environment.getSpec().getKey());
+        }
+        evictIdle(MAX_LIVE_ENVIRONMENTS);
+    }
+
+    private static synchronized WrenidmEnvironment takeIdle(String key) {
+        for (Iterator<Map.Entry<WrenidmEnvironment, String>> it = idle.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<WrenidmEnvironment, String> entry = it.next();
+            if (entry.getValue().equals(key)) {
+                it.remove();
+                leased.add(entry.getKey());
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stop least recently used idle environments until the number of live environments fits the limit.
+     */
+    private static void evictIdle(int limit) {
+        List<WrenidmEnvironment> evicted = new ArrayList<>();
+        synchronized (EnvironmentPool.class) {
+            Iterator<WrenidmEnvironment> it = idle.keySet().iterator();
+            while (it.hasNext() && idle.size() + leased.size() > limit) {
+                evicted.add(it.next());
+                it.remove();
+            }
+        }
+        evicted.forEach(WrenidmEnvironment::stop);
+    }
+
+    private static void discard(WrenidmEnvironment environment) {
+        synchronized (EnvironmentPool.class) {
+            leased.remove(environment);
+            idle.remove(environment);
+        }
+        environment.stop();
+    }
+
+    private static void shutdown() {
+        List<WrenidmEnvironment> environments;
+        synchronized (EnvironmentPool.class) {
+            environments = new ArrayList<>(idle.keySet());
+            environments.addAll(leased);
+            idle.clear();
+            leased.clear();
+        }
+        for (WrenidmEnvironment environment : environments) {
+            try {
+                environment.stop();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Failed to stop environment " + environment, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.ADMIN_AUTHORIZATION_HEADER_VALUE;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.WRENIDM_CONTAINER_NAME;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.httpClient;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.mapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.testcontainers.containers.Container;
+
+/**
+ * Common {@link EnvironmentReset} implementations working through the Wren:IDM REST interface (and through the
+ * container where REST offers no way to delete the data).
+ */
+public final class EnvironmentResets {
+
+    private EnvironmentResets() {
+    }
+
+    /**
+     * Delete all managed objects of the given type.
+     */
+    public static EnvironmentReset managedObjects(String objectType) {
+        return environment -> deleteAll(environment, "/openidm/managed/" + objectType, "_queryFilter=true&_fields=_id");
+    }
+
+    /**
+     * Delete all objects of the given type from the target system.
+     */
+    public static EnvironmentReset systemObjects(String systemName, String objectType) {
+        return environment -> deleteAll(environment, "/openidm/system/" + systemName + "/" + objectType,
+                "_queryId=query-all-ids");
+    }
+
+    /**
+     * Delete all workflow process instances.
+     */
+    public static EnvironmentReset processInstances() {
+        return environment -> deleteAll(environment, "/openidm/workflow/processinstance", "_queryId=query-all-ids");
+    }
+
+    /**
+     * Delete all links created by the given mapping.
+     */
+    public static EnvironmentReset links(String mapping) {
+        return environment -> repoCommand(environment, "link", "delete-mapping-links", "&mapping=" + mapping);
+    }
+
+    /**
+     * Delete all rows of an explicitly mapped repository table (e.g. {@code audit/sync}). Requires
+     * {@code purge-all} command in the repository configuration.
+     */
+    public static EnvironmentReset repoTable(String resourcePath) {
+        return environment -> repoCommand(environment, resourcePath, "purge-all", "");
+    }
+
+    /**
+     * Delete all audit events of the given topic (e.g. {@code sync}). Besides purging the repository table (see
+     * {@link #repoTable(String)}), the JSON audit log is truncated inside the container, as audit queries are
+     * answered by the JSON handler in the default audit configuration and the handler has no delete operation.
+     */
+    public static EnvironmentReset audit(String topic) {
+        EnvironmentReset repoReset = repoTable("audit/" + topic);
+        return environment -> {
+            repoReset.reset(environment);
+            // The log is appended to, so the handler continues at the new end of the truncated file
+            String script = "log=" + AuditLogTail.AUDIT_LOG_DIR + "/" + topic + ".audit.json; "
+                    + "[ ! -e \"$log\" ] || : > \"$log\"";
+            Container.ExecResult result = environment.getServiceContainer(WRENIDM_CONTAINER_NAME)
+                    .execInContainer("sh", "-c", script);
+            if (result.getExitCode() != 0) {
+                throw new IllegalStateException("Environment reset failed on truncating " + topic
+                        + " audit log: " + result.getStderr());
+            }
+        };
+    }
+
+    private static void repoCommand(WrenidmEnvironment environment, String resourcePath, String commandId,
+            String parameters) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/repo/" + resourcePath
+                        + "?_action=command&commandId=" + commandId + parameters))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        checkStatus(request, response);
+    }
+
+    private static void deleteAll(WrenidmEnvironment environment, String resourcePath, String query)
+            throws Exception {
+        HttpRequest queryRequest = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + resourcePath + "?" + query))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .build();
+        // Only identifiers are kept in memory, large query responses are streamed
+        List<String> objectIds = new ArrayList<>();
+        HttpResponse<QueryResultStream> queryResponse = httpClient.send(queryRequest,
+                QueryResultStream.bodyHandler(mapper));
+        try (QueryResultStream results = queryResponse.body()) {
+            if (queryResponse.statusCode() != 200) {
+                throw new IllegalStateException("Environment reset failed on GET " + queryRequest.uri()
+                        + " with status " + queryResponse.statusCode());
+            }
+            results.forEachRemaining(object -> objectIds.add(object.get("_id").asString()));
+        }
+
+        for (String id : objectIds) {
+            String objectId = URLEncoder.encode(id, StandardCharsets.UTF_8).replace("+", "%20");
+            HttpRequest deleteRequest = HttpRequest.newBuilder()
+                    .uri(URI.create(environment.getBaseUrl() + resourcePath + "/" + objectId))
+                    .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                    .header("If-Match", "*")
+                    .DELETE()
+                    .build();
+            HttpResponse<String> deleteResponse = httpClient.send(deleteRequest, HttpResponse.BodyHandlers.ofString());
+            if (deleteResponse.statusCode() != 404) {
+                checkStatus(deleteRequest, deleteResponse);
+            }
+        }
+    }
+
+    private static void checkStatus(HttpRequest request, HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Environment reset failed on " + request.method() + " " + request.uri()
+                    + " with status " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+}
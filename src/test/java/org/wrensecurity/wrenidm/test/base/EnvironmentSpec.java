@@ -0,0 +1,169 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Description of a Wren:IDM test environment (compose file, mounted configuration and environment
+ * overrides) together with the state resets a test class needs before it can use the environment.
+ *
+ * <p>Two specifications with the same {@link #getKey() key} can share a single running environment.
+ * Resets are not part of the key - they are executed on behalf of each class acquiring the environment.
+ */
+public final class EnvironmentSpec {
+
+    private static final Path CASES_DIR = Path.of("src/test/resources/cases");
+
+    private static final Path BASE_DIR = Path.of("src/test/resources/base");
+
+    private final File composeFile;
+
+    private final List<String> provisioners = new ArrayList<>();
+
+    private final Map<String, String> env = new TreeMap<>();
+
+    private final Map<String, Set<Integer>> exposedServices = new TreeMap<>();
+
+    private final List<EnvironmentReset> resets = new ArrayList<>();
+
+    private String key;
+
+    private EnvironmentSpec(File composeFile) {
+        this.composeFile = composeFile;
+    }
+
+    public static EnvironmentSpec forCase(String caseName) {
+        return new EnvironmentSpec(CASES_DIR.resolve(caseName).resolve("compose.yaml").toFile());
+    }
+
+    public static EnvironmentSpec forComposeFile(File composeFile) {
+        return new EnvironmentSpec(composeFile);
+    }
+
+    /**
+     * Wait for the given provisioner to pass its connection test after the environment starts.
+     */
+    public EnvironmentSpec withProvisioner(String provisionerName) {
+        provisioners.add(provisionerName);
+        key = null;
+        return this;
+    }
+
+    /**
+     * Pass environment variable to the compose project (e.g. to override mounted data directory).
+     */
+    public EnvironmentSpec withEnv(String name, String value) {
+        env.put(name, value);
+        key = null;
+        return this;
+    }
+
+    /**
+     * Map port of an additional compose service to a dynamic host port (see
+     * {@link WrenidmEnvironment#getServiceUrl(String, int)}).
+     */
+    public EnvironmentSpec withExposedService(String serviceName, int servicePort) {
+        exposedServices.computeIfAbsent(serviceName, name -> new TreeSet<>()).add(servicePort);
+        key = null;
+        return this;
+    }
+
+    public EnvironmentSpec withReset(EnvironmentReset reset) {
+        resets.add(reset);
+        return this;
+    }
+
+    public File getComposeFile() {
+        return composeFile;
+    }
+
+    public List<String> getProvisioners() {
+        return Collections.unmodifiableList(provisioners);
+    }
+
+    public Map<String, String> getEnv() {
+        return Collections.unmodifiableMap(env);
+    }
+
+    public Map<String, Set<Integer>> getExposedServices() {
+        return Collections.unmodifiableMap(exposedServices);
+    }
+
+    public List<EnvironmentReset> getResets() {
+        return Collections.unmodifiableList(resets);
+    }
+
+    /**
+     * Compatibility key of the environment. The key covers the compose file location, content of all files
+     * mounted from the case and base directories, Wren:IDM image name and environment overrides.
+     */
+    public String getKey() {
+        if (key == null) {
+            key = composeFile.getAbsoluteFile().toPath().normalize() + "#" + digest();
+        }
+        return key;
+    }
+
+    private String digest() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digestDirectory(digest, composeFile.getAbsoluteFile().getParentFile().toPath());
+            digestDirectory(digest, BASE_DIR);
+            digest.update(String.valueOf(System.getenv("WRENIDM_IMAGE")).getBytes());
+            digest.update(env.toString().getBytes());
+            digest.update(provisioners.toString().getBytes());
+            digest.update(exposedServices.toString().getBytes());
+            return HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void digestDirectory(MessageDigest digest, Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                digest.update(directory.relativize(file).toString().getBytes());
+                digest.update(Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return CASES_DIR.toAbsolutePath().relativize(composeFile.getAbsoluteFile().toPath()) + " " + env;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Frame;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.testcontainers.DockerClientFactory;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Periodic sample of H2 repository sessions - sessions waiting for a lock held by another session and, optionally,
+ * sessions executing a statement matching a pattern.
+ *
+ * <p>All samples are taken by a single H2 shell inside the {@code h2} compose service (executed through the Docker
+ * API), which reads the sampling statement from a shell loop on a fixed interval. A sampler that cannot be started
+ * or whose statement fails records the error, which is reported together with the samples.
+ */
+public final class H2SessionSampler implements AutoCloseable {
+
+    private static final String MARKER = "h2sample:";
+
+    private static final Pattern SAMPLE = Pattern.compile(MARKER + "(\\d+):(\\d+)");
+
+    private static final Pattern PID = Pattern.compile("^h2sampler-pid (\\d+)$");
+
+    // Feeds the sampling statement ($1) to the H2 shell (remaining arguments) every $2 seconds, the shell exits when
+    // the feeding loop is killed
+    private static final String SCRIPT = "exec \"${@:3}\" < <(echo \"h2sampler-pid $BASHPID\" >&2; "
+            + "while :; do echo \"$1\"; sleep \"$2\"; done)";
+
+    private static final int STOP_TIMEOUT_SECONDS = 5;
+
+    private final DockerClient client;
+
+    private final String containerId;
+
+    private final Duration interval;
+
+    private final boolean matching;
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    private final List<String> output = new ArrayList<>();
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    private ResultCallback.Adapter<Frame> callback;
+
+    // PID of the feeding loop inside the container
+    private volatile String pid;
+
+    private volatile boolean stopping;
+
+    private long samples;
+
+    private long maxBlocked;
+
+    private long samplesWithMatching;
+
+    private String error;
+
+    private H2SessionSampler(DockerClient client, String containerId, Duration interval, boolean matching) {
+        this.client = client;
+        this.containerId = containerId;
+        this.interval = interval;
+        this.matching = matching;
+    }
+
+    /**
+     * Start sampling blocked sessions.
+     */
+    public static H2SessionSampler start(WrenidmEnvironment environment, Duration interval) {
+        return start(environment, interval, null);
+    }
+
+    /**
+     * Start sampling blocked sessions and sessions (other than the sampler) whose lower case executing statement
+     * matches the given SQL {@code LIKE} pattern (e.g. {@code %clusterobject%}).
+     */
+    public static H2SessionSampler start(WrenidmEnvironment environment, Duration interval, String statementPattern) {
+        String containerId = environment.getServiceContainer(H2Shell.SERVICE_NAME).getContainerId();
+        H2SessionSampler sampler = new H2SessionSampler(DockerClientFactory.instance().client(), containerId,
+                interval, statementPattern != null);
+        List<String> command = new ArrayList<>(List.of("bash", "-c", SCRIPT, "h2-sampler",
+                sampleSql(statementPattern), String.format(Locale.ROOT, "%.3f", interval.toMillis() / 1000.0)));
+        command.addAll(H2Shell.SHELL_COMMAND);
+        try {
+            String execId = sampler.client.execCreateCmd(containerId)
+                    .withAttachStdout(true)
+                    .withAttachStderr(true)
+                    .withCmd(command.toArray(String[]::new))
+                    .exec()
+                    .getId();
+            sampler.callback = sampler.client.execStartCmd(execId).exec(new ResultCallback.Adapter<>() {
+                @Override
+                public void onNext(Frame frame) {
+                    sampler.onOutput(new String(frame.getPayload(), StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    sampler.fail("H2 session sampler failed: " + throwable);
+                    sampler.completed.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    if (!sampler.stopping) {
+                        sampler.fail("H2 session sampler exited: " + sampler.getOutput());
+                    }
+                    sampler.completed.countDown();
+                }
+            });
+        } catch (RuntimeException e) {
+            sampler.fail("Unable to start H2 session sampler: " + e);
+            sampler.completed.countDown();
+        }
+        return sampler;
+    }
+
+    private static String sampleSql(String statementPattern) {
+        String blocked = "(SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL)";
+        String matching = statementPattern == null ? "0"
+                : "(SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE SESSION_ID <> SESSION_ID()"
+                        + " AND LOWER(EXECUTING_STATEMENT) LIKE '" + statementPattern.replace("'", "''") + "')";
+        return "SELECT '" + MARKER + "' || " + blocked + " || ':' || " + matching + " AS S;";
+    }
+
+    private synchronized void onOutput(String chunk) {
+        buffer.append(chunk);
+        int end;
+        while ((end = buffer.indexOf("\n")) >= 0) {
+            String line = buffer.substring(0, end).strip();
+            buffer.delete(0, end + 1);
+            Matcher pidMatcher = PID.matcher(line);
+            Matcher sampleMatcher = SAMPLE.matcher(line);
+            if (pidMatcher.matches()) {
+                pid = pidMatcher.group(1);
+                started.countDown();
+            } else if (sampleMatcher.find()) {
+                samples++;
+                maxBlocked = Math.max(maxBlocked, Long.parseLong(sampleMatcher.group(1)));
+                samplesWithMatching += Long.parseLong(sampleMatcher.group(2)) > 0 ? 1 : 0;
+            } else if (!line.isEmpty()) {
+                // Shell banner and statement errors, kept for the failure description
+                output.add(line);
+                if (line.contains("Error:")) {
+                    fail("H2 session sample failed: " + line);
+                }
+            }
+        }
+    }
+
+    private synchronized void fail(String message) {
+        if (error == null) {
+            error = message;
+        }
+    }
+
+    private synchronized String getOutput() {
+        return String.join("\n", output);
+    }
+
+    /**
+     * Stop sampling, waiting for the samples already taken. Closing a stopped sampler has no effect.
+     */
+    @Override
+    public void close() {
+        if (callback == null || stopping) {
+            return;
+        }
+        stopping = true;
+        try {
+            if (started.await(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                String execId = client.execCreateCmd(containerId)
+                        .withCmd("kill", pid)
+                        .exec()
+                        .getId();
+                client.execStartCmd(execId)
+                        .exec(new ResultCallback.Adapter<>())
+                        .awaitCompletion(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+            // The shell exits once the pending sleep of the killed loop ends
+            if (!completed.await(interval.toSeconds() + STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                fail("H2 session sampler did not stop: " + getOutput());
+            }
+        } catch (RuntimeException e) {
+            fail("Unable to stop H2 session sampler " + pid + ": " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                callback.close();
+            } catch (IOException e) {
+                // stream already closed
+            }
+        }
+    }
+
+    public synchronized long getSamples() {
+        return samples;
+    }
+
+    public synchronized long getMaxBlocked() {
+        return maxBlocked;
+    }
+
+    /**
+     * @return error of a failed sampler, {@code null} when all samples were taken
+     */
+    public synchronized String getError() {
+        return error;
+    }
+
+    /**
+     * Write the sample summary to the given JSON node.
+     */
+    public synchronized ObjectNode writeTo(ObjectNode node) {
+        node.put("intervalMillis", interval.toMillis());
+        node.put("samples", samples);
+        node.put("maxBlockedSessions", maxBlocked);
+        if (matching) {
+            node.put("samplesWithMatchingStatement", samplesWithMatching);
+        }
+        if (error != null) {
+            node.put("error", error);
+        }
+        return node;
+    }
+
+}
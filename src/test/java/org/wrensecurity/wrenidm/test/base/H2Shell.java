@@ -0,0 +1,112 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.ContainerState;
+
+/**
+ * SQL access to the H2 repository database through the H2 shell inside the {@code h2} compose service. The
+ * service has to be exposed by the environment specification so that its container can be looked up.
+ */
+public final class H2Shell {
+
+    public static final String SERVICE_NAME = "h2";
+
+    public static final int TCP_PORT = 9092;
+
+    private static final String JDBC_URL = "jdbc:h2:tcp://localhost/~/wrenidm";
+
+    // H2 shell connected to the repository database, executed inside the service container
+    static final List<String> SHELL_COMMAND = List.of("java", "-cp", "/h2/h2.jar", "org.h2.tools.Shell",
+            "-url", JDBC_URL, "-user", "wrenidm", "-password", "wrenidm");
+
+    // Rows generated by a single INSERT ... SELECT statement, bigger ranges are split
+    private static final int INSERT_BATCH_ROWS = 500000;
+
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+");
+
+    private final ContainerState container;
+
+    public H2Shell(WrenidmEnvironment environment) {
+        this.container = environment.getServiceContainer(SERVICE_NAME);
+    }
+
+    /**
+     * Execute SQL statement and return the shell output.
+     */
+    public String execute(String sql) throws Exception {
+        Container.ExecResult result = container.execInContainer(
+                Stream.concat(SHELL_COMMAND.stream(), Stream.of("-sql", sql)).toArray(String[]::new));
+        if (result.getExitCode() != 0) {
+            throw new IllegalStateException("H2 statement failed: " + sql + "\n" + result.getStderr());
+        }
+        return result.getStdout();
+    }
+
+    /**
+     * Execute {@code INSERT ... SELECT} statement generating rows with indexes from {@code from} to {@code to} in
+     * batches. The statement is created for every batch from its source expression ({@code SYSTEM_RANGE(start, end)}).
+     */
+    public void insertRange(int from, int to, Function<String, String> statement) throws Exception {
+        for (int start = from; start <= to; start += INSERT_BATCH_ROWS) {
+            int end = Math.min(to, start + INSERT_BATCH_ROWS - 1);
+            execute(statement.apply("SYSTEM_RANGE(" + start + ", " + end + ")"));
+        }
+    }
+
+    /**
+     * Execute query returning a single numeric value (e.g. {@code SELECT COUNT(*) ...}).
+     */
+    public long queryLong(String sql) throws Exception {
+        String output = execute(sql);
+        return output.lines()
+                .map(String::strip)
+                .filter(line -> NUMBER.matcher(line).matches())
+                .mapToLong(Long::parseLong)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No numeric result of " + sql + ": " + output));
+    }
+
+    /**
+     * Execute the query with {@code EXPLAIN ANALYZE} and summarize the plan.
+     */
+    public Plan explainAnalyze(String sql) throws Exception {
+        String text = execute("EXPLAIN ANALYZE " + sql).strip();
+        long scanCount = 0;
+        Matcher matcher = SCAN_COUNT.matcher(text);
+        while (matcher.find()) {
+            scanCount += Long.parseLong(matcher.group(1));
+        }
+        return new Plan(text, scanCount, text.contains(".tableScan"));
+    }
+
+    /**
+     * @param text      plan as printed by H2
+     * @param scanCount total number of rows read by all table accesses
+     * @param tableScan whether any table is read without an index
+     */
+    public record Plan(String text, long scanCount, boolean tableScan) {
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generator of HR source files for the {@code system/csv/employee} connector (see {@code cases/sync/data/hr.csv}).
+ *
+ * <p>Generated rows are a deterministic mix of valid rows, invalid rows (rejected by {@code validSource} and
+ * reported as {@code SOURCE_IGNORED}) and valid rows selected to be pre-loaded as managed users by the caller
+ * (reported as {@code FOUND} instead of {@code ABSENT}).
+ */
+public final class HrCsvGenerator {
+
+    public static final String HEADER = "uid,firstName,lastName,telephoneNumber";
+
+    private static final String[] FIRST_NAMES = { "John", "Jon", "Jane", "Arya", "Petr", "Eva", "Tomas", "Lucie" };
+
+    private static final String[] LAST_NAMES = { "Doe", "Snow", "Stark", "Novak", "Svoboda", "Dvorak", "Cerny" };
+
+    private final String uidPrefix;
+
+    private double invalidRatio = 0.1;
+
+    private double existingRatio = 0.1;
+
+    private long seed = 42;
+
+    /**
+     * @param uidPrefix prefix of generated identifiers (note that managed users starting with {@code sync} are
+     *                  synchronized to LDAP by {@code managedUser_ldapAccount} mapping)
+     */
+    public HrCsvGenerator(String uidPrefix) {
+        this.uidPrefix = uidPrefix;
+    }
+
+    public HrCsvGenerator withInvalidRatio(double invalidRatio) {
+        this.invalidRatio = invalidRatio;
+        return this;
+    }
+
+    public HrCsvGenerator withExistingRatio(double existingRatio) {
+        this.existingRatio = existingRatio;
+        return this;
+    }
+
+    public HrCsvGenerator withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public static String uid(String uidPrefix, int index) {
+        return uidPrefix + String.format("%07d", index);
+    }
+
+    /**
+     * Write file with the given number of data rows (header excluded).
+     */
+    public Result generate(Path file, int rows) throws IOException {
+        Random random = new Random(seed);
+        List<Employee> existing = new ArrayList<>();
+        int invalid = 0;
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (int index = 1; index <= rows; index++) {
+                Employee employee;
+                if (random.nextDouble() < invalidRatio) {
+                    employee = new Employee(uid(uidPrefix, index), "", "", "");
+                    invalid++;
+                } else {
+                    employee = new Employee(uid(uidPrefix, index),
+                            FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                            LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                            String.valueOf(5550000 + random.nextInt(10000)));
+                    if (random.nextDouble() < existingRatio) {
+                        existing.add(employee);
+                    }
+                }
+                writer.write(employee.toCsv());
+                writer.newLine();
+            }
+        }
+
+        return new Result(file, rows, invalid, existing);
+    }
+
+    /**
+     * Single HR row.
+     */
+    public record Employee(String uid, String firstName, String lastName, String telephoneNumber) {
+
+        String toCsv() {
+            return uid + "," + firstName + "," + lastName + "," + telephoneNumber;
+        }
+
+    }
+
+    /**
+     * Summary of the generated file.
+     */
+    public static final class Result {
+
+        private final Path file;
+
+        private final int rows;
+
+        private final int invalid;
+
+        private final List<Employee> existing;
+
+        private Result(Path file, int rows, int invalid, List<Employee> existing) {
+            this.file = file;
+            this.rows = rows;
+            this.invalid = invalid;
+            this.existing = Collections.unmodifiableList(existing);
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Number of rows expected to be {@code SOURCE_IGNORED}.
+         */
+        public int getInvalid() {
+            return invalid;
+        }
+
+        /**
+         * Valid rows which should exist as managed users before reconciliation ({@code FOUND}).
+         */
+        public List<Employee> getExisting() {
+            return existing;
+        }
+
+        /**
+         * Number of rows expected to be {@code ABSENT}.
+         */
+        public int getAbsent() {
+            return rows - invalid - existing.size();
+        }
+
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Thread-safe log-linear latency histogram in the spirit of HdrHistogram. Values are recorded in nanoseconds
+ * into buckets with 64 linear sub-buckets per power of two, which bounds the relative error of reported
+ * percentiles to ~1.6 % over the whole value range.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong totalCount = new AtomicLong();
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong minNanos = new AtomicLong(Long.MAX_VALUE);
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(value);
+        minNanos.accumulateAndGet(value, Math::min);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        record(unit.toNanos(duration));
+    }
+
+    /**
+     * Add all values recorded by the other histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            long count = other.counts.get(index);
+            if (count > 0) {
+                counts.addAndGet(index, count);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalNanos.addAndGet(other.totalNanos.get());
+        minNanos.accumulateAndGet(other.minNanos.get(), Math::min);
+        maxNanos.accumulateAndGet(other.maxNanos.get(), Math::max);
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getMinNanos() {
+        return getCount() == 0 ? 0 : minNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalNanos.get() / count;
+    }
+
+    /**
+     * Value at the given percentile (0-100) in nanoseconds. The result is the highest value equivalent
+     * to the recorded ones within the histogram precision.
+     */
+    public long getPercentileNanos(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long cumulative = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            cumulative += counts.get(index);
+            if (cumulative >= rank) {
+                return Math.min(highestEquivalentValue(index), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Write summary in milliseconds (count, min, mean, p50, p90, p95, p99, p99.9, max) into the JSON node.
+     */
+    public ObjectNode writeTo(ObjectNode node) {
+        node.put("count", getCount());
+        node.put("minMillis", toMillis(getMinNanos()));
+        node.put("meanMillis", toMillis(getMeanNanos()));
+        node.put("p50Millis", toMillis(getPercentileNanos(50)));
+        node.put("p90Millis", toMillis(getPercentileNanos(90)));
+        node.put("p95Millis", toMillis(getPercentileNanos(95)));
+        node.put("p99Millis", toMillis(getPercentileNanos(99)));
+        node.put("p999Millis", toMillis(getPercentileNanos(99.9)));
+        node.put("maxMillis", toMillis(getMaxNanos()));
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms", getCount(),
+                toMillis(getPercentileNanos(50)), toMillis(getPercentileNanos(95)),
+                toMillis(getPercentileNanos(99)), toMillis(getMaxNanos()));
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Keep the top SUB_BUCKET_BITS bits of the value
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + subBucket;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
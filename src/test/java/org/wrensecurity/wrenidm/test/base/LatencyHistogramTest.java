@@ -0,0 +1,142 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    // Value recorded above the tested one, so that the percentile is not capped by the maximum
+    private static final long LARGE_NANOS = 1_000_000_000L;
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMinNanos());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getPercentileNanos(50));
+    }
+
+    @Test
+    public void testExactSmallValues() {
+        for (long value = 0; value < 128; value++) {
+            assertEquals(value, lowerPercentile(value));
+        }
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        // First bucket with two values per sub-bucket
+        assertEquals(129, lowerPercentile(128));
+        assertEquals(129, lowerPercentile(129));
+        assertEquals(131, lowerPercentile(130));
+        assertEquals(255, lowerPercentile(255));
+        // Four values per sub-bucket from the next power of two
+        assertEquals(259, lowerPercentile(256));
+        assertEquals(259, lowerPercentile(259));
+        assertEquals(263, lowerPercentile(260));
+    }
+
+    @Test
+    public void testRelativeError() {
+        for (long value = 128; value < LARGE_NANOS; value = value * 3 + 1) {
+            long percentile = lowerPercentile(value);
+            assertTrue(percentile >= value && percentile - value <= value / 64, value + " reported as " + percentile);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getMinNanos());
+        assertEquals(50.5, histogram.getMeanNanos());
+        assertEquals(1, histogram.getPercentileNanos(0));
+        assertEquals(50, histogram.getPercentileNanos(50));
+        assertEquals(90, histogram.getPercentileNanos(90));
+        assertEquals(99, histogram.getPercentileNanos(99));
+        assertEquals(100, histogram.getPercentileNanos(99.9));
+        assertEquals(100, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testPercentileCappedByMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        assertEquals(1000, histogram.getPercentileNanos(50));
+        assertEquals(1000, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testLargestValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getMaxNanos());
+        assertEquals(1, histogram.getPercentileNanos(50));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(100));
+
+        // Lowest sub-bucket of the highest power of two
+        long half = 1L << 62;
+        histogram = new LatencyHistogram();
+        histogram.record(half);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(half + (half >> 6) - 1, histogram.getPercentileNanos(50));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testNegativeValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(0, histogram.getMinNanos());
+        assertEquals(0, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testAdd() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (long value = 1; value <= 50; value++) {
+            first.record(value);
+            second.record(value + 50);
+        }
+        first.add(second);
+        assertEquals(100, first.getCount());
+        assertEquals(1, first.getMinNanos());
+        assertEquals(100, first.getMaxNanos());
+        assertEquals(50, first.getPercentileNanos(50));
+        assertEquals(99, first.getPercentileNanos(99));
+    }
+
+    /**
+     * Percentile of the lower one of two recorded values, i.e. the highest value equivalent to it.
+     */
+    private static long lowerPercentile(long value) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+        histogram.record(LARGE_NANOS);
+        return histogram.getPercentileNanos(50);
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.ContainerState;
+
+/**
+ * Bulk access to the OpenLDAP directory through the LDAP client tools inside the {@code ldap} compose service.
+ * The service has to be exposed by the environment specification so that its container can be looked up.
+ */
+public final class LdapShell {
+
+    public static final String SERVICE_NAME = "ldap";
+
+    public static final int LDAP_PORT = 389;
+
+    public static final String BASE_DN = "dc=wrensecurity,dc=org";
+
+    private static final String BIND_OPTIONS = "-x -H ldap://localhost -D cn=admin," + BASE_DN + " -w password";
+
+    private final ContainerState container;
+
+    public LdapShell(WrenidmEnvironment environment) {
+        this.container = environment.getServiceContainer(SERVICE_NAME);
+    }
+
+    /**
+     * Distinguished name of the account with the given uid.
+     */
+    public static String accountDn(String uid) {
+        return "uid=" + uid + "," + BASE_DN;
+    }
+
+    /**
+     * Add {@code inetOrgPerson} accounts with uids generated by {@link HrCsvGenerator#uid(String, int)} for
+     * indexes {@code from} to {@code to} (inclusive). Existing accounts are skipped. The LDIF is generated inside
+     * the container, so that the size of the batch is not limited by the command line.
+     */
+    public void addAccounts(String prefix, int from, int to) throws Exception {
+        execute("i=" + from + "; while [ $i -le " + to + " ]; do"
+                + " uid=$(printf '" + prefix + "%07d' $i);"
+                + " printf 'dn: uid=%s," + BASE_DN + "\\nobjectClass: inetOrgPerson\\nuid: %s\\ncn: %s\\nsn: Doe\\n"
+                + "givenName: John\\nmail: %s@wrensecurity.org\\n\\n' $uid $uid $uid $uid;"
+                + " i=$((i+1)); done | ldapadd -c " + BIND_OPTIONS + " > /dev/null;"
+                // 68 - entry already exists
+                + " status=$?; [ $status -eq 0 ] || [ $status -eq 68 ]");
+    }
+
+    /**
+     * Delete all accounts with uid starting with the given prefix.
+     */
+    public void deleteAccounts(String prefix) throws Exception {
+        execute("ldapsearch -LLL -o ldif-wrap=no " + BIND_OPTIONS + " -b " + BASE_DN + " '(uid=" + prefix + "*)' dn"
+                + " | sed -n 's/^dn: //p' | ldapdelete -c " + BIND_OPTIONS);
+    }
+
+    /**
+     * Number of accounts with uid starting with the given prefix.
+     */
+    public int countAccounts(String prefix) throws Exception {
+        String output = execute("ldapsearch -LLL -o ldif-wrap=no " + BIND_OPTIONS + " -b " + BASE_DN + " '(uid=" + prefix + "*)' dn"
+                + " | grep -c '^dn:' || true");
+        return Integer.parseInt(output.strip());
+    }
+
+    private String execute(String script) throws Exception {
+        Container.ExecResult result = container.execInContainer("sh", "-c", script);
+        if (result.getExitCode() != 0) {
+            throw new IllegalStateException("LDAP command failed: " + script + "\n" + result.getStderr());
+        }
+        return result.getStdout();
+    }
+
+}
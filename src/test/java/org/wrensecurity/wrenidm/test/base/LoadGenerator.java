@@ -0,0 +1,377 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * HTTP load generator driving a request template (request index to request) through an {@link HttpClient}.
+ *
+ * <p>With {@link #withRate(double)} requests are issued asynchronously at a constant arrival rate (open model)
+ * and latency is measured from the intended start of each request, so a slow server cannot hold back the load and
+ * hide queueing delay (coordinated omission). With {@link #withConcurrency(int)} a fixed number of workers issue
+ * requests back to back (closed model) and latency is measured from the actual send.
+ *
+ * <pre>
+ * LoadGenerator.Result result = LoadGenerator.forRequests(httpClient, index -&gt; pingRequest)
+ *         .withRate(200)
+ *         .withDuration(Duration.ofSeconds(30))
+ *         .run();
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private final HttpClient client;
+
+    private final IntFunction<HttpRequest> requests;
+
+    private double rate;
+
+    private int concurrency = 1;
+
+    private int count = Integer.MAX_VALUE;
+
+    private Duration duration;
+
+    private Set<Integer> expectedStatuses = Set.of(200);
+
+    private Duration completionTimeout = Duration.ofMinutes(5);
+
+    private ResponseListener responseListener;
+
+    private LoadGenerator(HttpClient client, IntFunction<HttpRequest> requests) {
+        this.client = client;
+        this.requests = requests;
+    }
+
+    /**
+     * @param client   client used to send the requests
+     * @param requests template building the request with the given index
+     */
+    public static LoadGenerator forRequests(HttpClient client, IntFunction<HttpRequest> requests) {
+        return new LoadGenerator(client, requests);
+    }
+
+    /**
+     * Issue requests at the given constant arrival rate (requests per second) regardless of response times.
+     */
+    public LoadGenerator withRate(double rate) {
+        this.rate = rate;
+        return this;
+    }
+
+    /**
+     * Issue requests from the given number of workers, each waiting for the previous response.
+     */
+    public LoadGenerator withConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+        this.rate = 0;
+        return this;
+    }
+
+    public LoadGenerator withRequests(int count) {
+        this.count = count;
+        return this;
+    }
+
+    public LoadGenerator withDuration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public LoadGenerator withExpectedStatus(Integer... statuses) {
+        this.expectedStatuses = Set.of(statuses);
+        return this;
+    }
+
+    /**
+     * Maximum time to wait for outstanding responses after the last request is issued (with a fixed concurrency,
+     * maximum time without any response).
+     */
+    public LoadGenerator withCompletionTimeout(Duration completionTimeout) {
+        this.completionTimeout = completionTimeout;
+        return this;
+    }
+
+    /**
+     * Pass successful responses (with expected status) to the listener. Response bodies are discarded unless a
+     * listener is set.
+     */
+    public LoadGenerator withResponseListener(ResponseListener responseListener) {
+        this.responseListener = responseListener;
+        return this;
+    }
+
+    /**
+     * Generate the load and wait for all responses.
+     *
+     * @throws AssertionError when the responses do not arrive within the completion timeout
+     */
+    public Result run() throws Exception {
+        if (count == Integer.MAX_VALUE && duration == null) {
+            throw new IllegalStateException("Number of requests or duration has to be configured");
+        }
+        return rate > 0 ? runOpen() : runClosed();
+    }
+
+    private Result runOpen() throws Exception {
+        final long intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+        final Result result = new Result(Instant.now(), System.nanoTime(), intervalNanos);
+        final long endNanos = duration != null ? result.startNanos + duration.toNanos() : Long.MAX_VALUE;
+
+        List<CompletableFuture<?>> responses = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            final long intendedNanos = result.startNanos + index * intervalNanos;
+            if (intendedNanos - endNanos >= 0) {
+                break;
+            }
+            for (long waitNanos; (waitNanos = intendedNanos - System.nanoTime()) > 0; ) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            final long sentNanos = System.nanoTime();
+            result.sent.incrementAndGet();
+            final int requestIndex = index;
+            responses.add(client.sendAsync(requests.apply(index), bodyHandler()).whenComplete((response, error) ->
+                    result.record(requestIndex, intendedNanos, sentNanos, response, error)));
+        }
+        await(CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)));
+        return result.complete();
+    }
+
+    private Result runClosed() throws Exception {
+        final Result result = new Result(Instant.now(), System.nanoTime(), 0);
+        final long endNanos = duration != null ? result.startNanos + duration.toNanos() : Long.MAX_VALUE;
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicLong progressNanos = new AtomicLong(result.startNanos);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int worker = 0; worker < concurrency; worker++) {
+                futures.add(workers.submit((Callable<Object>) () -> {
+                    int index;
+                    while ((index = nextIndex.getAndIncrement()) < count && System.nanoTime() - endNanos < 0) {
+                        long sentNanos = System.nanoTime();
+                        result.sent.incrementAndGet();
+                        HttpResponse<?> response = null;
+                        Throwable error = null;
+                        try {
+                            response = client.send(requests.apply(index), bodyHandler());
+                        } catch (Exception e) {
+                            error = e;
+                        }
+                        result.record(index, sentNanos, sentNanos, response, error);
+                        progressNanos.set(System.nanoTime());
+                    }
+                    return null;
+                }));
+            }
+            // Workers send requests back to back, so the run is considered hung when no response arrives within
+            // the completion timeout
+            for (Future<?> future : futures) {
+                while (true) {
+                    try {
+                        future.get(1, TimeUnit.SECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        if (System.nanoTime() - progressNanos.get() > completionTimeout.toNanos()) {
+                            throw new AssertionError("Responses did not arrive within " + completionTimeout, e);
+                        }
+                    } catch (ExecutionException e) {
+                        throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return result.complete();
+    }
+
+    private HttpResponse.BodyHandler<?> bodyHandler() {
+        return responseListener != null ? HttpResponse.BodyHandlers.ofString() : HttpResponse.BodyHandlers.discarding();
+    }
+
+    private void await(Future<?> future) throws Exception {
+        try {
+            future.get(completionTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new AssertionError("Responses did not arrive within " + completionTimeout, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Consumer of successful responses.
+     */
+    @FunctionalInterface
+    public interface ResponseListener {
+
+        /**
+         * @param index    index of the request
+         * @param response response with the body as string
+         */
+        void onResponse(int index, HttpResponse<String> response);
+
+    }
+
+    /**
+     * Outcome of a load run. Latencies of failed requests are recorded as well.
+     */
+    public final class Result {
+
+        private final Instant startTime;
+
+        private final long startNanos;
+
+        private final long intervalNanos;
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+        private final AtomicInteger sent = new AtomicInteger();
+
+        private final AtomicInteger errors = new AtomicInteger();
+
+        private final AtomicLong lastCompletionNanos = new AtomicLong();
+
+        private final AtomicReference<String> firstError = new AtomicReference<>();
+
+        private long durationNanos;
+
+        private Result(Instant startTime, long startNanos, long intervalNanos) {
+            this.startTime = startTime;
+            this.startNanos = startNanos;
+            this.intervalNanos = intervalNanos;
+            this.lastCompletionNanos.set(startNanos);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void record(int index, long intendedNanos, long sentNanos, HttpResponse<?> response, Throwable error) {
+            long completedNanos = System.nanoTime();
+            latency.record(completedNanos - intendedNanos);
+            serviceTime.record(completedNanos - sentNanos);
+            lastCompletionNanos.accumulateAndGet(completedNanos, (last, current) -> current - last > 0 ? current : last);
+            if (error != null || !expectedStatuses.contains(response.statusCode())) {
+                errors.incrementAndGet();
+                firstError.compareAndSet(null, error != null ? error.toString()
+                        : response.request().method() + " " + response.request().uri() + " -> " + response.statusCode());
+            } else if (responseListener != null) {
+                responseListener.onResponse(index, (HttpResponse<String>) response);
+            }
+        }
+
+        private Result complete() {
+            durationNanos = lastCompletionNanos.get() - startNanos;
+            return this;
+        }
+
+        public Instant getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * Intended start of the request with the given index (open model only).
+         */
+        public Instant getIntendedTime(int index) {
+            if (intervalNanos == 0) {
+                throw new IllegalStateException("Intended time is defined only for constant arrival rate");
+            }
+            return startTime.plusNanos(index * intervalNanos);
+        }
+
+        /**
+         * Response time measured from the intended start of each request.
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * Response time measured from the actual send of each request.
+         */
+        public LatencyHistogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public int getSent() {
+            return sent.get();
+        }
+
+        public int getErrors() {
+            return errors.get();
+        }
+
+        /**
+         * Description of the first failed request, {@code null} if all requests succeeded.
+         */
+        public String getFirstError() {
+            return firstError.get();
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public double getAchievedRate() {
+            return durationNanos > 0 ? sent.get() * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos : 0;
+        }
+
+        public ObjectNode writeTo(ObjectNode node) {
+            if (rate > 0) {
+                node.put("targetRequestsPerSecond", rate);
+            } else {
+                node.put("concurrency", concurrency);
+            }
+            node.put("requests", getSent());
+            node.put("errors", getErrors());
+            node.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(durationNanos));
+            node.put("achievedRequestsPerSecond", getAchievedRate());
+            latency.writeTo(node.putObject("latency"));
+            serviceTime.writeTo(node.putObject("serviceTime"));
+            return node;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests (%d errors) at %.1f/s, latency %s", getSent(), getErrors(),
+                    getAchievedRate(), latency);
+        }
+    }
+}
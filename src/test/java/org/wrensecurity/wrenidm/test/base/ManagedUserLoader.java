@@ -0,0 +1,376 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.ADMIN_AUTHORIZATION_HEADER_VALUE;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.httpClient;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.mapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Bulk loader of generated managed users with identifiers {@code <prefix><index>} (see
+ * {@link HrCsvGenerator#uid(String, int)}, indexes start at 1).
+ *
+ * <p>Users can be loaded through concurrent REST PUT requests with bounded number of requests in flight, through
+ * reconciliation of a generated HR file ({@code csvEmployee_managedUser} mapping) or by SQL inserts straight into the
+ * H2 generic tables. The last one bypasses Wren:IDM completely (no policies, no implicit sync, no audit) and requires
+ * the {@code h2} service to be exposed. All methods are resumable - users loaded by a previous (interrupted) run are
+ * skipped.
+ */
+public final class ManagedUserLoader {
+
+    private static final String RECON_MAPPING = "csvEmployee_managedUser";
+
+    // Properties searchable in the generic layout of managed/user (see repo.jdbc.json)
+    private static final String[] SEARCHABLE_PROPERTIES = { "/userName", "/givenName", "/sn", "/mail", "/accountStatus" };
+
+    // Template user holding the encrypted password for SQL inserts (outside of the loader prefix)
+    private static final String PASSWORD_TEMPLATE_PREFIX = "password-template-";
+
+    private final WrenidmEnvironment environment;
+
+    private final String prefix;
+
+    private int maxInFlight = 16;
+
+    private IntFunction<ObjectNode> userFactory = this::createUser;
+
+    private ManagedUserLoader(WrenidmEnvironment environment, String prefix) {
+        this.environment = environment;
+        this.prefix = prefix;
+    }
+
+    /**
+     * @param prefix prefix of user identifiers (users starting with {@code sync} are propagated to LDAP in the sync case)
+     */
+    public static ManagedUserLoader forEnvironment(WrenidmEnvironment environment, String prefix) {
+        return new ManagedUserLoader(environment, prefix);
+    }
+
+    /**
+     * Maximum number of REST requests in flight.
+     */
+    public ManagedUserLoader withMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Factory of user objects loaded through REST (the default produces John Doe users with unique mail).
+     */
+    public ManagedUserLoader withUserFactory(IntFunction<ObjectNode> userFactory) {
+        this.userFactory = userFactory;
+        return this;
+    }
+
+    public String getUserId(int index) {
+        return HrCsvGenerator.uid(prefix, index);
+    }
+
+    /**
+     * Create missing users with indexes from 1 to count through REST.
+     */
+    public Result loadWithRest(int count) throws Exception {
+        long startNanos = System.nanoTime();
+        BitSet existing = queryExistingIndexes();
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger(existing.get(1, count + 1).cardinality());
+        AtomicInteger errors = new AtomicInteger();
+        AtomicReference<String> firstError = new AtomicReference<>();
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        for (int index = existing.nextClearBit(1); index <= count; index = existing.nextClearBit(index + 1)) {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user/" + getUserId(index)))
+                    .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                    .header("Content-Type", "application/json")
+                    .header("If-None-Match", "*")
+                    .PUT(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(userFactory.apply(index))))
+                    .build();
+            inFlight.acquire();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                if (error == null && response.statusCode() == 201) {
+                    loaded.incrementAndGet();
+                } else if (error == null && response.statusCode() == 412) {
+                    skipped.incrementAndGet();
+                } else {
+                    errors.incrementAndGet();
+                    firstError.compareAndSet(null, error != null ? error.toString()
+                            : request.uri() + " -> " + response.statusCode() + ": " + response.body());
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+
+        if (errors.get() > 0) {
+            throw new IllegalStateException("Failed to load " + errors.get() + " users, first error: " + firstError.get());
+        }
+        return new Result("rest", count, loaded.get(), skipped.get(), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Create missing users with indexes from 1 to count by reconciliation of a generated HR file. The file has to
+     * be the file read by the CSV connector (see {@code SYNC_DATA_DIR} of the sync case). Attributes of the users
+     * are generated by {@link HrCsvGenerator}, user factory is not used.
+     */
+    public Result loadWithReconciliation(Path hrFile, int count) throws Exception {
+        long startNanos = System.nanoTime();
+        new HrCsvGenerator(prefix)
+                .withInvalidRatio(0)
+                .withExistingRatio(0)
+                .generate(hrFile, count);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/recon?_action=recon&mapping=" + RECON_MAPPING
+                        + "&waitForCompletion=true"))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode recon = mapper.readTree(response.body());
+        if (response.statusCode() != 200 || !"SUCCESS".equals(recon.path("state").asString())) {
+            throw new IllegalStateException("Loading reconciliation failed: " + response.body());
+        }
+
+        JsonNode situations = recon.path("situationSummary");
+        return new Result("reconciliation", count, situations.path("ABSENT").asInt(),
+                situations.path("FOUND").asInt() + situations.path("CONFIRMED").asInt(),
+                System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Insert missing users with indexes from 1 to count straight into {@code managedobjects} and
+     * {@code managedobjectproperties} (generic repository layout only). The encrypted password is copied from a
+     * template user created through REST, so that the inserted objects match the objects created by Wren:IDM.
+     * Users are generated by a single set-based statement, so the user factory is used only for the template user -
+     * inserted users always have the default John Doe attributes.
+     */
+    public Result loadWithJdbc(int count) throws Exception {
+        long startNanos = System.nanoTime();
+        H2Shell h2 = new H2Shell(environment);
+        String templateId = PASSWORD_TEMPLATE_PREFIX + prefix;
+        sendTemplateRequest(templateId, "PUT");
+        try {
+            return insertUsers(h2, templateId, count, startNanos);
+        } finally {
+            sendTemplateRequest(templateId, "DELETE");
+        }
+    }
+
+    private Result insertUsers(H2Shell h2, String templateId, int count, long startNanos) throws Exception {
+        String password = mapper.writeValueAsString(readTemplatePassword(templateId)).replace("'", "''");
+        String userIds = "SELECT X AS idx, '" + prefix + "' || LPAD(CAST(X AS VARCHAR), 7, '0') AS objectid "
+                + "FROM SYSTEM_RANGE(1, " + count + ")";
+        String userType = "SELECT id FROM wrenidm.objecttypes WHERE objecttype = 'managed/user'";
+
+        h2.execute("MERGE INTO wrenidm.objecttypes (objecttype) KEY (objecttype) VALUES ('managed/user')");
+        long before = h2.queryLong("SELECT COUNT(*) FROM wrenidm.managedobjects WHERE objecttypes_id = (" + userType
+                + ") AND objectid LIKE '" + prefix + "%'");
+        h2.execute("INSERT INTO wrenidm.managedobjects (objecttypes_id, objectid, rev, fullobject) "
+                + "SELECT t.id, u.objectid, '0', ('{\"_id\":\"' || u.objectid || '\",\"_rev\":\"0\","
+                + "\"userName\":\"' || u.objectid || '\",\"givenName\":\"John\",\"sn\":\"Doe' || u.idx || '\","
+                + "\"mail\":\"' || u.objectid || '@wrensecurity.org\",\"accountStatus\":\"active\","
+                + "\"password\":" + password + "}') FORMAT JSON "
+                + "FROM (" + userIds + ") u CROSS JOIN (" + userType + ") t "
+                + "WHERE NOT EXISTS (SELECT 1 FROM wrenidm.managedobjects o "
+                + "WHERE o.objecttypes_id = t.id AND o.objectid = u.objectid)");
+        h2.execute("INSERT INTO wrenidm.managedobjectproperties (managedobjects_id, propkey, proptype, propvalue) "
+                + "SELECT o.id, p.propkey, 'java.lang.String', CASE p.propkey "
+                + "WHEN '/userName' THEN o.objectid "
+                + "WHEN '/givenName' THEN 'John' "
+                + "WHEN '/sn' THEN 'Doe' || CAST(SUBSTRING(o.objectid, " + (prefix.length() + 1) + ") AS INT) "
+                + "WHEN '/mail' THEN o.objectid || '@wrensecurity.org' "
+                + "ELSE 'active' END "
+                + "FROM wrenidm.managedobjects o "
+                + "CROSS JOIN (VALUES " + String.join(", ", quote(SEARCHABLE_PROPERTIES)) + ") p(propkey) "
+                + "WHERE o.objecttypes_id = (" + userType + ") AND o.objectid LIKE '" + prefix + "%' "
+                + "AND NOT EXISTS (SELECT 1 FROM wrenidm.managedobjectproperties e WHERE e.managedobjects_id = o.id)");
+        long after = h2.queryLong("SELECT COUNT(*) FROM wrenidm.managedobjects WHERE objecttypes_id = (" + userType
+                + ") AND objectid LIKE '" + prefix + "%'");
+
+        return new Result("jdbc", count, (int) (after - before), (int) before, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Indexes of users with the loader prefix which already exist.
+     */
+    private BitSet queryExistingIndexes() throws Exception {
+        String filter = URLEncoder.encode("/_id sw \"" + prefix + "\"", StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user?_queryFilter=" + filter + "&_fields=_id"))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .build();
+        HttpResponse<QueryResultStream> response = httpClient.send(request, QueryResultStream.bodyHandler(mapper));
+
+        BitSet existing = new BitSet();
+        try (QueryResultStream results = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Query of existing users failed with status " + response.statusCode());
+            }
+            results.forEachRemaining(user -> {
+                String suffix = user.path("_id").asString().substring(prefix.length());
+                if (suffix.chars().allMatch(Character::isDigit) && !suffix.isEmpty()) {
+                    existing.set(Integer.parseInt(suffix));
+                }
+            });
+        }
+        return existing;
+    }
+
+    /**
+     * Encrypted password of the template user as stored in the repository. The stored object is read through the
+     * {@code repo} endpoint ({@code managed/user} does not return the password and the H2 shell truncates long
+     * values).
+     */
+    private JsonNode readTemplatePassword(String templateId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/repo/managed/user/" + templateId))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Read of template user failed: " + response.body());
+        }
+        JsonNode password = mapper.readTree(response.body()).path("password");
+        if (!password.has("$crypto")) {
+            throw new IllegalStateException("Template user " + templateId + " has no encrypted password");
+        }
+        return password;
+    }
+
+    private void sendTemplateRequest(String templateId, String method) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user/" + templateId))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .header("Content-Type", "application/json")
+                .method(method, "PUT".equals(method)
+                        ? HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(userFactory.apply(0)))
+                        : HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(method + " of template user failed: " + response.body());
+        }
+    }
+
+    private ObjectNode createUser(int index) {
+        String userId = getUserId(index);
+        ObjectNode user = mapper.createObjectNode();
+        user.put("userName", userId);
+        user.put("givenName", "John");
+        user.put("sn", "Doe" + index);
+        user.put("mail", userId + "@wrensecurity.org");
+        user.put("password", "FooBar123");
+        return user;
+    }
+
+    private static String[] quote(String[] values) {
+        String[] quoted = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            quoted[i] = "('" + values[i] + "')";
+        }
+        return quoted;
+    }
+
+    /**
+     * Outcome of a load.
+     */
+    public static final class Result {
+
+        private final String method;
+
+        private final int requested;
+
+        private final int loaded;
+
+        private final int skipped;
+
+        private final long durationNanos;
+
+        private Result(String method, int requested, int loaded, int skipped, long durationNanos) {
+            this.method = method;
+            this.requested = requested;
+            this.loaded = loaded;
+            this.skipped = skipped;
+            this.durationNanos = durationNanos;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public int getRequested() {
+            return requested;
+        }
+
+        /**
+         * Number of users created by this load.
+         */
+        public int getLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Number of users which already existed.
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * Created users per second.
+         */
+        public double getRate() {
+            return durationNanos > 0 ? loaded * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos : 0;
+        }
+
+        public ObjectNode writeTo(ObjectNode node) {
+            node.put("method", method);
+            node.put("requested", requested);
+            node.put("loaded", loaded);
+            node.put("skipped", skipped);
+            node.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(durationNanos));
+            node.put("usersPerSecond", getRate());
+            return node;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s load: %d loaded, %d skipped at %.1f users/s", method, loaded, skipped, getRate());
+        }
+    }
+
+}
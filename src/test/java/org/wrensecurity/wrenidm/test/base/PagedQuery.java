@@ -0,0 +1,243 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Client side iteration over a paged query. Pages are requested either with {@code _pagedResultsOffset} or by
+ * following {@code pagedResultsCookie} and the next page is requested asynchronously as soon as the current one
+ * arrives, so fetching overlaps with consumption of the current page.
+ *
+ * <pre>
+ * PagedQuery users = PagedQuery.over(httpClient, mapper, this::request, usersUrl + "?_queryFilter=true")
+ *         .withPageSize(500)
+ *         .withCookies();
+ * users.forEachRemaining(user -&gt; ...);
+ * LatencyHistogram pageLatency = users.getPageLatency();
+ * </pre>
+ */
+public final class PagedQuery implements Iterator<JsonNode> {
+
+    public enum Mode {
+        OFFSET,
+        COOKIE
+    }
+
+    /**
+     * Statistics of a single fetched page.
+     *
+     * @param index        page number starting at zero
+     * @param offset       offset of the first result of the page
+     * @param results      number of results on the page
+     * @param latencyNanos time from sending the page request to receiving the whole page
+     */
+    public record Page(int index, int offset, int results, long latencyNanos) {
+    }
+
+    private final HttpClient client;
+
+    private final ObjectMapper mapper;
+
+    private final Function<URI, HttpRequest> requestFactory;
+
+    private final String queryUrl;
+
+    private Mode mode = Mode.OFFSET;
+
+    private int pageSize = 100;
+
+    private boolean prefetch = true;
+
+    private final List<Page> pages = new ArrayList<>();
+
+    private final LatencyHistogram pageLatency = new LatencyHistogram();
+
+    private CompletableFuture<JsonNode> pendingPage;
+
+    private Iterator<JsonNode> currentPage = Collections.emptyIterator();
+
+    private int nextOffset;
+
+    private String nextCookie;
+
+    private int requestedPages;
+
+    private boolean exhausted;
+
+    private PagedQuery(HttpClient client, ObjectMapper mapper, Function<URI, HttpRequest> requestFactory,
+            String queryUrl) {
+        this.client = client;
+        this.mapper = mapper;
+        this.requestFactory = requestFactory;
+        this.queryUrl = queryUrl;
+    }
+
+    /**
+     * @param requestFactory factory of page requests (e.g. adding authorization header)
+     * @param queryUrl       URL of the query including the query parameters ({@code _queryFilter} or {@code _queryId})
+     */
+    public static PagedQuery over(HttpClient client, ObjectMapper mapper, Function<URI, HttpRequest> requestFactory,
+            String queryUrl) {
+        return new PagedQuery(client, mapper, requestFactory, queryUrl);
+    }
+
+    public PagedQuery withPageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Request pages with {@code _pagedResultsOffset} (default).
+     */
+    public PagedQuery withOffsets() {
+        this.mode = Mode.OFFSET;
+        return this;
+    }
+
+    /**
+     * Request pages by following {@code pagedResultsCookie} of the previous page.
+     */
+    public PagedQuery withCookies() {
+        this.mode = Mode.COOKIE;
+        return this;
+    }
+
+    /**
+     * Disable prefetching - the next page is requested only after the current one is consumed.
+     */
+    public PagedQuery withoutPrefetch() {
+        this.prefetch = false;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!currentPage.hasNext()) {
+            if (exhausted && pendingPage == null) {
+                return false;
+            }
+            if (pendingPage == null) {
+                pendingPage = fetch(nextOffset, nextCookie);
+            }
+            JsonNode page = awaitPage();
+            currentPage = page.path("result").iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public JsonNode next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.next();
+    }
+
+    /**
+     * Remaining results as a sequential stream.
+     */
+    public Stream<JsonNode> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Pages fetched so far.
+     */
+    public List<Page> getPages() {
+        synchronized (pages) {
+            return List.copyOf(pages);
+        }
+    }
+
+    public LatencyHistogram getPageLatency() {
+        return pageLatency;
+    }
+
+    private JsonNode awaitPage() {
+        JsonNode page;
+        try {
+            page = pendingPage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for query page", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new IllegalStateException("Failed to fetch query page", e.getCause());
+        }
+        pendingPage = null;
+
+        int results = page.path("result").size();
+        JsonNode cookie = page.path("pagedResultsCookie");
+        nextOffset += results;
+        nextCookie = cookie.isString() ? cookie.asString() : null;
+        exhausted = results < pageSize || (mode == Mode.COOKIE && nextCookie == null);
+        if (!exhausted && prefetch) {
+            pendingPage = fetch(nextOffset, nextCookie);
+        }
+        return page;
+    }
+
+    private CompletableFuture<JsonNode> fetch(int offset, String cookie) {
+        String pagedUrl = queryUrl + (queryUrl.contains("?") ? "&" : "?") + "_pageSize=" + pageSize;
+        if (mode == Mode.OFFSET) {
+            pagedUrl += "&_pagedResultsOffset=" + offset;
+        } else if (cookie != null) {
+            pagedUrl += "&_pagedResultsCookie=" + URLEncoder.encode(cookie, StandardCharsets.UTF_8);
+        }
+        HttpRequest request = requestFactory.apply(URI.create(pagedUrl));
+        final int index = requestedPages++;
+        final long startNanos = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            long latencyNanos = System.nanoTime() - startNanos;
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Query page request " + request.uri() + " failed with status "
+                        + response.statusCode() + ": " + new String(response.body(), StandardCharsets.UTF_8));
+            }
+            JsonNode page = mapper.readTree(response.body());
+            synchronized (pages) {
+                pages.add(new Page(index, offset, page.path("result").size(), latencyNanos));
+            }
+            pageLatency.record(latencyNanos);
+            return page;
+        });
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Streaming reader of a query response. Elements of the {@code result} array are parsed one at a time directly from
+ * the response body, so memory use does not grow with the number of returned objects.
+ *
+ * <p>Wren:IDM writes {@code resultCount} and paged results properties after the {@code result} array. Accessing them
+ * skips the results which have not been iterated yet (without materializing them).
+ *
+ * <pre>
+ * HttpResponse&lt;QueryResultStream&gt; response = httpClient.send(request, QueryResultStream.bodyHandler(mapper));
+ * try (QueryResultStream results = response.body()) {
+ *     results.stream().forEach(user -&gt; ...);
+ *     assertEquals(100_000, results.getResultCount());
+ * }
+ * </pre>
+ */
+public final class QueryResultStream implements Iterator<JsonNode>, Closeable {
+
+    private final ObjectMapper mapper;
+
+    private final InputStream input;
+
+    private JsonParser parser;
+
+    private boolean inResults;
+
+    private JsonNode nextResult;
+
+    private int resultCount = -1;
+
+    private String pagedResultsCookie;
+
+    private int totalPagedResults = -1;
+
+    private int remainingPagedResults = -1;
+
+    public QueryResultStream(ObjectMapper mapper, InputStream input) {
+        this.mapper = mapper;
+        this.input = input;
+    }
+
+    /**
+     * Body handler providing the response as a query result stream. The stream has to be closed by the caller.
+     */
+    public static HttpResponse.BodyHandler<QueryResultStream> bodyHandler(ObjectMapper mapper) {
+        return responseInfo -> HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(),
+                input -> new QueryResultStream(mapper, input));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextResult != null) {
+            return true;
+        }
+        if (!advanceToResults()) {
+            return false;
+        }
+        if (parser.nextToken() == JsonToken.END_ARRAY) {
+            inResults = false;
+            readProperties();
+            return false;
+        }
+        nextResult = mapper.readTree(parser);
+        return true;
+    }
+
+    @Override
+    public JsonNode next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JsonNode result = nextResult;
+        nextResult = null;
+        return result;
+    }
+
+    /**
+     * Remaining results as a sequential stream.
+     */
+    public Stream<JsonNode> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public int getResultCount() {
+        skipResults();
+        return resultCount;
+    }
+
+    public String getPagedResultsCookie() {
+        skipResults();
+        return pagedResultsCookie;
+    }
+
+    public int getTotalPagedResults() {
+        skipResults();
+        return totalPagedResults;
+    }
+
+    public int getRemainingPagedResults() {
+        skipResults();
+        return remainingPagedResults;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (parser != null) {
+            parser.close();
+        }
+        input.close();
+    }
+
+    /**
+     * Position the parser inside the result array.
+     *
+     * @return {@code false} if the result array has already been consumed
+     */
+    private boolean advanceToResults() {
+        if (parser == null) {
+            parser = mapper.createParser(input);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Query response is not a JSON object");
+            }
+            inResults = readProperties();
+        }
+        return inResults;
+    }
+
+    /**
+     * Read properties of the response object up to the result array or the end of the object.
+     *
+     * @return {@code true} if the parser stopped at the start of the result array
+     */
+    private boolean readProperties() {
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.PROPERTY_NAME) {
+            String name = parser.currentName();
+            token = parser.nextToken();
+            switch (name) {
+                case "result" -> {
+                    if (token == JsonToken.START_ARRAY) {
+                        return true;
+                    }
+                    parser.skipChildren();
+                }
+                case "resultCount" -> resultCount = parser.getIntValue();
+                case "pagedResultsCookie" -> pagedResultsCookie =
+                        token == JsonToken.VALUE_NULL ? null : parser.getString();
+                case "totalPagedResults" -> totalPagedResults = parser.getIntValue();
+                case "remainingPagedResults" -> remainingPagedResults = parser.getIntValue();
+                default -> parser.skipChildren();
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new IllegalStateException("Unexpected token " + token + " in query response");
+        }
+        return false;
+    }
+
+    private void skipResults() {
+        nextResult = null;
+        if (!advanceToResults()) {
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+        inResults = false;
+        readProperties();
+    }
+
+}
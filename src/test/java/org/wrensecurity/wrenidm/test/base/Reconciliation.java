@@ -0,0 +1,95 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.ADMIN_AUTHORIZATION_HEADER_VALUE;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.httpClient;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.mapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Reconciliation started through REST and awaited by the request ({@code waitForCompletion=true}).
+ */
+public final class Reconciliation {
+
+    private Reconciliation() {
+    }
+
+    /**
+     * Reconcile the mapping on the environment instance (the first node of a cluster) and read the finished
+     * reconciliation. Fails when the reconciliation does not succeed.
+     */
+    public static Result run(WrenidmEnvironment environment, String mapping) throws Exception {
+        long startNanos = System.nanoTime();
+        HttpRequest reconReq = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/recon?_action=recon&mapping=" + mapping
+                        + "&waitForCompletion=true"))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> reconResp = httpClient.send(reconReq, HttpResponse.BodyHandlers.ofString());
+        long elapsedNanos = System.nanoTime() - startNanos;
+        assertEquals(200, reconResp.statusCode(), reconResp.body());
+        String reconId = mapper.readTree(reconResp.body()).get("_id").asString();
+
+        HttpRequest resultReq = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/recon/" + reconId))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .build();
+        HttpResponse<String> resultResp = httpClient.send(resultReq, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, resultResp.statusCode(), resultResp.body());
+        JsonNode recon = mapper.readTree(resultResp.body());
+        assertEquals("SUCCESS", recon.path("state").asString(), recon.toString());
+        return new Result(recon, elapsedNanos);
+    }
+
+    /**
+     * @param recon        finished reconciliation as returned by {@code GET /openidm/recon/<id>}
+     * @param elapsedNanos duration of the reconciliation request
+     */
+    public record Result(JsonNode recon, long elapsedNanos) {
+
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        /**
+         * Number of source and target objects in the given situation (e.g. {@code ABSENT}).
+         */
+        public int situationCount(String situation) {
+            return recon.path("situationSummary").path(situation).asInt();
+        }
+
+        /**
+         * Write the state and the client and server side duration of the reconciliation to the given JSON node.
+         */
+        public ObjectNode writeTo(ObjectNode node) {
+            node.put("state", recon.path("state").asString());
+            node.put("durationMillis", elapsedMillis());
+            node.put("serverDurationMillis", recon.path("duration").asLong());
+            return node;
+        }
+
+    }
+
+}
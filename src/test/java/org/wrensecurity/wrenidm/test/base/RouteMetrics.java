@@ -0,0 +1,180 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import java.io.IOException;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Per-route statistics of HTTP calls (latency, status codes, transferred bytes) recorded by
+ * {@link InstrumentedHttpClient}. Request paths are normalized to routes by replacing object identifiers with
+ * {@code {id}}, e.g. {@code POST /openidm/workflow/taskinstance/{id}?_action=complete}. Sub-resources such as
+ * relationship fields are kept, e.g. {@code GET /openidm/managed/user/{id}/roles}.
+ *
+ * <p>Statistics of the {@link #shared() shared} instance are written at JVM exit to
+ * {@code target/rest-metrics.json} (file can be changed with {@code wrenidm.metrics.file} property).
+ */
+public final class RouteMetrics {
+
+    private static final Logger logger = System.getLogger(RouteMetrics.class.getName());
+
+    // Number of leading path segments (after /openidm) naming a resource collection rather than an object
+    private static final Map<String, Integer> COLLECTION_SEGMENTS = Map.of(
+            "managed", 2,
+            "system", 3,
+            "workflow", 2,
+            "recon", 1,
+            "audit", 2,
+            "endpoint", 2,
+            "info", 2,
+            "config", 2,
+            "policy", 2,
+            "scheduler", 2);
+
+    // Sub-resources addressed in place of an object identifier (e.g. workflow/processinstance/history/{id})
+    private static final Set<String> SUB_RESOURCES = Set.of("history");
+
+    // Query parameters whose values distinguish routes, other parameters are reported by name only
+    private static final Set<String> ROUTE_PARAMETERS = Set.of("_action", "_queryId");
+
+    private static final Pattern GENERATED_ID = Pattern.compile("\\d+|[0-9a-fA-F-]{8,}");
+
+    private static final RouteMetrics SHARED = new RouteMetrics();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SHARED::writeSummary, "wrenidm-route-metrics"));
+    }
+
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    public static RouteMetrics shared() {
+        return SHARED;
+    }
+
+    public void record(String method, URI uri, int statusCode, long requestBytes, long responseBytes,
+            long latencyNanos) {
+        Route route = routes.computeIfAbsent(method + " " + normalize(uri), name -> new Route());
+        route.latency.record(latencyNanos);
+        route.statuses.computeIfAbsent(statusCode, status -> new LongAdder()).increment();
+        route.requestBytes.add(Math.max(0, requestBytes));
+        route.responseBytes.add(Math.max(0, responseBytes));
+    }
+
+    /**
+     * Normalize request URI to a route by replacing object identifiers in the path and dropping query parameter
+     * values (except for {@code _action} and {@code _queryId}).
+     */
+    static String normalize(URI uri) {
+        String[] segments = uri.getRawPath().split("/");
+        StringBuilder route = new StringBuilder();
+        // Position of the object identifier within a known collection
+        int idPosition = -1;
+        int position = 0;
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (position == 1 && "openidm".equals(segments[1]) && COLLECTION_SEGMENTS.containsKey(segment)) {
+                idPosition = COLLECTION_SEGMENTS.get(segment) + 1;
+            }
+            boolean fixed;
+            if (position == 0 || position < idPosition) {
+                fixed = true;
+            } else if (position == idPosition) {
+                fixed = SUB_RESOURCES.contains(segment);
+                if (fixed) {
+                    idPosition++;
+                }
+            } else {
+                // Segments following the object identifier and routes of unknown collections only replace numeric
+                // and UUID-like segments
+                fixed = !GENERATED_ID.matcher(segment).matches();
+            }
+            route.append('/').append(fixed ? segment : "{id}");
+            position++;
+        }
+        if (uri.getRawQuery() != null) {
+            List<String> parameters = new ArrayList<>();
+            for (String parameter : uri.getRawQuery().split("&")) {
+                String name = parameter.split("=", 2)[0];
+                parameters.add(ROUTE_PARAMETERS.contains(name) ? parameter : name);
+            }
+            parameters.sort(null);
+            route.append('?').append(String.join("&", parameters));
+        }
+        return route.toString();
+    }
+
+    public ObjectNode writeTo(ObjectNode node) {
+        ArrayNode results = node.putArray("routes");
+        new TreeMap<>(routes).forEach((name, route) -> {
+            ObjectNode result = results.addObject();
+            result.put("route", name);
+            result.put("count", route.latency.getCount());
+            ObjectNode statuses = result.putObject("statuses");
+            new TreeMap<>(route.statuses).forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+            result.put("requestBytes", route.requestBytes.sum());
+            result.put("responseBytes", route.responseBytes.sum());
+            route.latency.writeTo(result.putObject("latency"));
+        });
+        return node;
+    }
+
+    private void writeSummary() {
+        if (routes.isEmpty()) {
+            return;
+        }
+        Path summaryFile = Path.of(System.getProperty("wrenidm.metrics.file", "target/rest-metrics.json"));
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            if (summaryFile.getParent() != null) {
+                Files.createDirectories(summaryFile.getParent());
+            }
+            mapper.writerWithDefaultPrettyPrinter().writeValue(summaryFile.toFile(), writeTo(mapper.createObjectNode()));
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Failed to write route metrics to " + summaryFile, e);
+        }
+    }
+
+    private static final class Route {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private final LongAdder requestBytes = new LongAdder();
+
+        private final LongAdder responseBytes = new LongAdder();
+
+    }
+
+}
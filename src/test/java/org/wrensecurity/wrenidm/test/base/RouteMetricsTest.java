@@ -0,0 +1,68 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+
+public class RouteMetricsTest {
+
+    @Test
+    public void testObjectIdentifier() {
+        assertRoute("/openidm/managed/user", "/openidm/managed/user");
+        assertRoute("/openidm/managed/user/{id}", "/openidm/managed/user/jdoe");
+        assertRoute("/openidm/system/ldap/account/{id}", "/openidm/system/ldap/account/uid=jdoe,ou=people");
+        assertRoute("/openidm/recon/{id}", "/openidm/recon/recon-1");
+    }
+
+    @Test
+    public void testSubResource() {
+        assertRoute("/openidm/workflow/processinstance/history/{id}", "/openidm/workflow/processinstance/history/42");
+        assertRoute("/openidm/workflow/processinstance/{id}", "/openidm/workflow/processinstance/42");
+    }
+
+    @Test
+    public void testSegmentsAfterIdentifier() {
+        assertRoute("/openidm/managed/user/{id}/roles/{id}", "/openidm/managed/user/jdoe/roles/7");
+    }
+
+    @Test
+    public void testUnknownCollection() {
+        assertRoute("/openidm/repo/managed/user/{id}", "/openidm/repo/managed/user/5");
+        assertRoute("/openidm/repo/audit/access/{id}",
+                "/openidm/repo/audit/access/0f8c2b9e-4c1d-4d9a-9a33-2f1e7c5b6a10");
+        assertRoute("/openidm/repo/managed/user/jdoe", "/openidm/repo/managed/user/jdoe");
+    }
+
+    @Test
+    public void testQueryParameters() {
+        assertRoute("/openidm/managed/user?_fields&_pageSize&_queryFilter",
+                "/openidm/managed/user?_queryFilter=userName%20eq%20%22jdoe%22&_pageSize=10&_fields=_id");
+        assertRoute("/openidm/workflow/taskinstance/{id}?_action=complete",
+                "/openidm/workflow/taskinstance/123?_action=complete");
+        assertRoute("/openidm/recon?_action=recon&mapping",
+                "/openidm/recon?mapping=csvEmployee_managedUser&_action=recon");
+        assertRoute("/openidm/managed/user?_prettyPrint&_queryId=query-all-ids",
+                "/openidm/managed/user?_queryId=query-all-ids&_prettyPrint");
+    }
+
+    private static void assertRoute(String expected, String uri) {
+        assertEquals(expected, RouteMetrics.normalize(URI.create(uri)));
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.1.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.1.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.wrensecurity.wrenidm.test.base;
+
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.ADMIN_AUTHORIZATION_HEADER_VALUE;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.ANONYMOUS_AUTHORIZATION_HEADER_VALUE;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.MAX_PROVISIONER_WAIT_SECONDS;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.WRENIDM_CONTAINER_NAME;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.WRENIDM_PORT;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.httpClient;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.mapper;
+import static org.wrensecurity.wrenidm.test.base.BaseWrenidmTest.wrenidmStartupWaitStrategy;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import org.testcontainers.containers.ComposeContainer;
+import org.testcontainers.containers.ContainerState;
+
+/**
+ * Running Wren:IDM compose stack managed by {@link EnvironmentPool}.
+ */
+public final class WrenidmEnvironment {
+
+    private final EnvironmentSpec spec;
+
+    private final ComposeContainer container;
+
+    private String baseUrl;
+
+    WrenidmEnvironment(EnvironmentSpec spec) {
+        this.spec = spec;
+        this.container = new ComposeContainer(spec.getComposeFile());
+        container.withEnv(spec.getEnv());
+        container.withExposedService(WRENIDM_CONTAINER_NAME, WRENIDM_PORT, wrenidmStartupWaitStrategy());
+        for (Map.Entry<String, Set<Integer>> service : spec.getExposedServices().entrySet()) {
+            for (Integer servicePort : service.getValue()) {
+                container.withExposedService(service.getKey(), servicePort);
+            }
+        }
+    }
+
+    public EnvironmentSpec getSpec() {
+        return spec;
+    }
+
+    public ComposeContainer getContainer() {
+        return container;
+    }
+
+    /**
+     * Base URL of the Wren:IDM instance resolved from its dynamically mapped port.
+     */
+    public String getBaseUrl() {
+        if (baseUrl == null) {
+            baseUrl = getServiceUrl(WRENIDM_CONTAINER_NAME, WRENIDM_PORT);
+        }
+        return baseUrl;
+    }
+
+    /**
+     * HTTP URL of a service port exposed by the environment specification.
+     */
+    public String getServiceUrl(String serviceName, int servicePort) {
+        return "http://" + container.getServiceHost(serviceName, servicePort)
+                + ":" + container.getServicePort(serviceName, servicePort);
+    }
+
+    /**
+     * Running container of the given compose service.
+     */
+    public ContainerState getServiceContainer(String serviceName) {
+        return container.getContainerByServiceName(serviceName)
+                .orElseThrow(() -> new IllegalStateException("Service " + serviceName + " is not running"));
+    }
+
+    void start() throws Exception {
+        container.start();
+        for (String provisionerName : spec.getProvisioners()) {
+            waitForProvisioner(provisionerName);
+        }
+    }
+
+    void stop() {
+        container.stop();
+    }
+
+    /**
+     * Run resets required by the acquiring specification.
+     */
+    void reset(EnvironmentSpec acquiringSpec) throws Exception {
+        for (EnvironmentReset reset : acquiringSpec.getResets()) {
+            reset.reset(this);
+        }
+    }
+
+    /**
+     * Check that the Wren:IDM instance still responds with {@code ACTIVE_READY} state.
+     */
+    boolean isReady() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(getBaseUrl() + "/openidm/info/ping"))
+                    .header("Authorization", ANONYMOUS_AUTHORIZATION_HEADER_VALUE)
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200
+                    && "ACTIVE_READY".equals(mapper.readTree(response.body()).path("state").asString());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void waitForProvisioner(String provisionerName) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(getBaseUrl() + "/openidm/system/" + provisionerName + "?_action=test"))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+        Await.until("provisioner " + provisionerName,
+                        () -> httpClient.send(request, HttpResponse.BodyHandlers.ofString()),
+                        response -> response.statusCode() == 200
+                                && mapper.readTree(response.body()).path("ok").asBoolean())
+                .atMost(Duration.ofSeconds(MAX_PROVISIONER_WAIT_SECONDS))
+                .describedAs(HttpResponse::body)
+                .get();
+    }
+
+    @Override
+    public String toString() {
+        return spec.toString();
+    }
+
+}
@@ -18,7 +18,6 @@ package org.wrensecurity.wrenidm.test.cases;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.io.File;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -27,15 +26,19 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
-import org.testcontainers.containers.ComposeContainer;
 import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
+import org.wrensecurity.wrenidm.test.base.WrenidmEnvironment;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.JsonNode;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class EmailTest extends BaseWrenidmTest {
 
-    private static final String SMTP_API_BASE_URL = "http://smtp.wrensecurity.local:8025";
+    private static final String SMTP_SERVICE_NAME = "smtp";
+
+    private static final int SMTP_API_PORT = 8025;
 
     private static final String EMAIL_DATA = """
         {
@@ -48,24 +51,31 @@ public class EmailTest extends BaseWrenidmTest {
         """;
 
     @BeforeAll
-    public void init() {
-        environment = new ComposeContainer(new File("src/test/resources/cases/email/compose.yaml"));
-        environment.waitingFor(WRENIDM_CONTAINER_NAME, WRENIDM_STARTUP_WAIT_STRATEGY);
-        environment.start();
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("email")
+                .withExposedService(SMTP_SERVICE_NAME, SMTP_API_PORT)
+                .withReset(EmailTest::clearInbox));
     }
 
     @AfterAll
     public void teardown() {
-        if (environment != null) {
-            environment.stop();
-        }
+        EnvironmentPool.release(environment);
+    }
+
+    private static void clearInbox(WrenidmEnvironment environment) throws Exception {
+        HttpRequest deleteReq = HttpRequest.newBuilder()
+                .uri(URI.create(environment.getServiceUrl(SMTP_SERVICE_NAME, SMTP_API_PORT) + "/api/v1/messages"))
+                .DELETE()
+                .build();
+        HttpResponse<String> deleteResp = httpClient.send(deleteReq, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, deleteResp.statusCode());
     }
 
     @Test
     public void testSendEmailAndCheckInbox() throws Exception {
         // Send email via Wren:IDM
         HttpRequest sendReq = HttpRequest.newBuilder()
-                .uri(URI.create(WRENIDM_BASE_URL + "/openidm/external/email?_action=send"))
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/external/email?_action=send"))
                 .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(EMAIL_DATA))
@@ -78,7 +88,7 @@ public class EmailTest extends BaseWrenidmTest {
 
         // Check SMTP inbox (MailHog API)
         HttpRequest inboxReq = HttpRequest.newBuilder()
-                .uri(URI.create(SMTP_API_BASE_URL + "/api/v2/messages"))
+                .uri(URI.create(environment.getServiceUrl(SMTP_SERVICE_NAME, SMTP_API_PORT) + "/api/v2/messages"))
                 .build();
         HttpResponse<String> inboxResp = httpClient.send(inboxReq, HttpResponse.BodyHandlers.ofString());
         assertEquals(200, inboxResp.statusCode());
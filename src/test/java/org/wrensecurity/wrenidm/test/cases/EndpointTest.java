@@ -17,7 +17,6 @@ package org.wrensecurity.wrenidm.test.cases;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-import java.io.File;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -28,8 +27,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer;
-import org.testcontainers.containers.ComposeContainer;
 import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
 import tools.jackson.databind.JsonNode;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -47,24 +48,21 @@ public class EndpointTest extends BaseWrenidmTest {
         """;
 
     @BeforeAll
-    public void init() {
-        environment = new ComposeContainer(new File("src/test/resources/cases/endpoint/compose.yaml"));
-        environment.waitingFor(WRENIDM_CONTAINER_NAME, WRENIDM_STARTUP_WAIT_STRATEGY);
-        environment.start();
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("endpoint")
+                .withReset(EnvironmentResets.managedObjects("user")));
     }
 
     @AfterAll
     public void teardown() {
-        if (environment != null) {
-            environment.stop();
-        }
+        EnvironmentPool.release(environment);
     }
 
     @Test
     @Order(1)
     public void testSetup() throws Exception {
         HttpRequest createUserReq = HttpRequest.newBuilder()
-                .uri(URI.create(WRENIDM_BASE_URL + "/openidm/managed/user/endpoint"))
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user/endpoint"))
                 .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
                 .header("Content-Type", "application/json")
                 .PUT(HttpRequest.BodyPublishers.ofString(MANAGED_USER_DATA))
@@ -77,7 +75,7 @@ public class EndpointTest extends BaseWrenidmTest {
     @Order(2)
     public void testDefault() throws Exception {
         HttpRequest queryReq = HttpRequest.newBuilder()
-                .uri(URI.create(WRENIDM_BASE_URL + "/openidm/managed/user?_queryFilter=/userName%20eq%20%22endpoint%22"))
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user?_queryFilter=/userName%20eq%20%22endpoint%22"))
                 .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
                 .build();
         HttpResponse<String> queryResp = httpClient.send(queryReq, HttpResponse.BodyHandlers.ofString());
@@ -92,7 +90,7 @@ public class EndpointTest extends BaseWrenidmTest {
     @Order(3)
     public void testCustom() throws Exception {
         HttpRequest queryReq = HttpRequest.newBuilder()
-                .uri(URI.create(WRENIDM_BASE_URL + "/openidm/endpoint/custom/users?_queryId=dummy"))
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/endpoint/custom/users?_queryId=dummy"))
                 .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
                 .build();
         HttpResponse<String> queryResp = httpClient.send(queryReq, HttpResponse.BodyHandlers.ofString());
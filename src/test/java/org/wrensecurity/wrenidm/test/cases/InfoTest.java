@@ -18,7 +18,6 @@ package org.wrensecurity.wrenidm.test.cases;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.io.File;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -29,31 +28,28 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
-import org.testcontainers.containers.ComposeContainer;
 import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
 import tools.jackson.core.type.TypeReference;
 
 @TestInstance(Lifecycle.PER_CLASS)
 public class InfoTest extends BaseWrenidmTest {
 
     @BeforeAll
-    public void init() {
-        environment = new ComposeContainer(new File("src/test/resources/cases/info/compose.yaml"));
-        environment.waitingFor(WRENIDM_CONTAINER_NAME, WRENIDM_STARTUP_WAIT_STRATEGY);
-        environment.start();
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("info"));
     }
 
     @AfterAll
     public void teardown() {
-        if (environment != null) {
-            environment.stop();
-        }
+        EnvironmentPool.release(environment);
     }
 
     @Test
     public void testPing() throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(WRENIDM_BASE_URL + "/openidm/info/ping"))
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/info/ping"))
                 .header("Authorization", ANONYMOUS_AUTHORIZATION_HEADER_VALUE)
                 .build();
         HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
@@ -67,7 +63,7 @@ public class InfoTest extends BaseWrenidmTest {
     public void testGetVersion() throws Exception {
         String versionRegex = "^[\\d]+.[\\d]+.[\\d]+(-[A-Z][A-Z0-9-]*)?$";
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(WRENIDM_BASE_URL + "/openidm/info/version"))
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/info/version"))
                 .header("Authorization", ANONYMOUS_AUTHORIZATION_HEADER_VALUE)
                 .build();
         HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
@@ -18,7 +18,6 @@ package org.wrensecurity.wrenidm.test.cases;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.io.File;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -26,8 +25,9 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
-import org.testcontainers.containers.ComposeContainer;
 import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
 import tools.jackson.databind.JsonNode;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -35,23 +35,19 @@ public class ProvisionerTest extends BaseWrenidmTest {
 
     @BeforeAll
     public void init() throws Exception {
-        environment = new ComposeContainer(new File("src/test/resources/cases/provisioner/compose.yaml"));
-        environment.waitingFor(WRENIDM_CONTAINER_NAME, WRENIDM_STARTUP_WAIT_STRATEGY);
-        environment.start();
-        environment.waitingFor(WRENIDM_CONTAINER_NAME, provisionerWaitStrategy("ldap"));
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("provisioner")
+                .withProvisioner("ldap"));
     }
 
     @AfterAll
     public void teardown() {
-        if (environment != null) {
-            environment.stop();
-        }
+        EnvironmentPool.release(environment);
     }
 
     @Test
     public void testLdapConnection() throws Exception {
         HttpRequest testReq = HttpRequest.newBuilder()
-                .uri(URI.create(WRENIDM_BASE_URL + "/openidm/system/ldap?_action=test"))
+                .uri(URI.create(environment.getBaseUrl() + "/openidm/system/ldap?_action=test"))
                 .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString("{}"))
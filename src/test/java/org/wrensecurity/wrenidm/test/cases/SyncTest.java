@@ -17,12 +17,13 @@ package org.wrensecurity.wrenidm.test.cases;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.io.File;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -31,8 +32,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer;
-import org.testcontainers.containers.ComposeContainer;
+import org.wrensecurity.wrenidm.test.base.AuditLogTail;
+import org.wrensecurity.wrenidm.test.base.Await;
 import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
 
 import tools.jackson.databind.JsonNode;
 
@@ -61,23 +66,25 @@ public class SyncTest extends BaseWrenidmTest {
 
     @BeforeAll
     public void init() throws Exception {
-        environment = new ComposeContainer(new File("src/test/resources/cases/sync/compose.yaml"));
-        environment.waitingFor(WRENIDM_CONTAINER_NAME, WRENIDM_STARTUP_WAIT_STRATEGY);
-        environment.start();
-        environment.waitingFor(WRENIDM_CONTAINER_NAME, provisionerWaitStrategy("ldap"));
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("sync")
+                .withProvisioner("ldap")
+                .withReset(EnvironmentResets.links(RECON_MAPPING))
+                .withReset(EnvironmentResets.links(AUDIT_MAPPING))
+                .withReset(EnvironmentResets.managedObjects("user"))
+                .withReset(EnvironmentResets.systemObjects("ldap", "account"))
+                .withReset(EnvironmentResets.audit("recon"))
+                .withReset(EnvironmentResets.audit("sync")));
     }
 
     @AfterAll
     public void teardown() {
-        if (environment != null) {
-            environment.stop();
-        }
+        EnvironmentPool.release(environment);
     }
 
     @Test
     @Order(1)
     public void testSetup() throws Exception {
-        HttpRequest req = HttpRequest.newBuilder(URI.create(WRENIDM_BASE_URL + "/openidm/managed/user/" + USER_ID))
+        HttpRequest req = HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/openidm/managed/user/" + USER_ID))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .PUT(HttpRequest.BodyPublishers.ofString(MANAGED_USER_DATA))
@@ -89,7 +96,7 @@ public class SyncTest extends BaseWrenidmTest {
     @Test
     @Order(2)
     public void testReconciliation() throws Exception {
-        HttpRequest req = HttpRequest.newBuilder(URI.create(WRENIDM_BASE_URL + "/openidm/recon?_action=recon&mapping=" + RECON_MAPPING + "&waitForCompletion=true"))
+        HttpRequest req = HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/openidm/recon?_action=recon&mapping=" + RECON_MAPPING + "&waitForCompletion=true"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .POST(HttpRequest.BodyPublishers.noBody())
             .build();
@@ -104,7 +111,7 @@ public class SyncTest extends BaseWrenidmTest {
     @Test
     @Order(3)
     public void testReconciliationResult() throws Exception {
-        HttpRequest req = HttpRequest.newBuilder(URI.create(WRENIDM_BASE_URL + "/openidm/recon/" + reconId))
+        HttpRequest req = HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/openidm/recon/" + reconId))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
@@ -121,7 +128,7 @@ public class SyncTest extends BaseWrenidmTest {
     @Order(4)
     public void testManagedUsers() throws Exception {
         String encodedFilter = URLEncoder.encode("/userName sw \"sync\"", StandardCharsets.UTF_8);
-        HttpRequest req = HttpRequest.newBuilder(URI.create(WRENIDM_BASE_URL + "/openidm/managed/user?_queryFilter=" + encodedFilter))
+        HttpRequest req = HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/openidm/managed/user?_queryFilter=" + encodedFilter))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
@@ -143,45 +150,31 @@ public class SyncTest extends BaseWrenidmTest {
                 "/sourceObjectId sw \"managed/user/sync\" and " +
                 "/status eq \"SUCCESS\"";
 
-        final int expected = 2;
-        final long deadlineNanos = System.nanoTime()
-                + java.util.concurrent.TimeUnit.SECONDS.toNanos(MAX_IMPLICIT_SYNC_WAIT_SECONDS);
-
-        Integer lastResultCount = null;
-        String lastBody = null;
-
-        while (System.nanoTime() < deadlineNanos) {
-            String encoded = URLEncoder.encode(filter, StandardCharsets.UTF_8);
-            HttpRequest req = HttpRequest.newBuilder(
-                    URI.create(WRENIDM_BASE_URL + "/openidm/audit/sync?_queryFilter=" + encoded))
-                    .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
-                    .build();
-
-            HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
-            assertEquals(200, resp.statusCode());
+        String encoded = URLEncoder.encode(filter, StandardCharsets.UTF_8);
+        HttpRequest req = HttpRequest.newBuilder(
+                URI.create(environment.getBaseUrl() + "/openidm/audit/sync?_queryFilter=" + encoded))
+                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+                .build();
 
-            lastBody = resp.body();
-            JsonNode body = mapper.readTree(lastBody);
-            lastResultCount = body.path("resultCount").asInt();
-
-            if (lastResultCount == expected) {
-                return;
-            }
-
-            Thread.sleep(1000);
+        final int expected = 2;
+        try (AuditLogTail syncAudit = AuditLogTail.open(environment, "sync", Pattern.compile(AUDIT_MAPPING))) {
+            Await.until("implicit sync audit success records (expected resultCount=" + expected + ")",
+                    () -> {
+                        HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
+                        assertEquals(200, resp.statusCode());
+                        return resp.body();
+                    },
+                    body -> mapper.readTree(body).path("resultCount").asInt() == expected)
+                .atMost(Duration.ofSeconds(MAX_IMPLICIT_SYNC_WAIT_SECONDS))
+                .withSignal(syncAudit.getSignal())
+                .get();
         }
-
-        fail("Timed out after " + MAX_IMPLICIT_SYNC_WAIT_SECONDS
-                + "s waiting for implicit sync audit success records. "
-                + "Expected resultCount=" + expected
-                + " but last resultCount=" + lastResultCount
-                + ". Last response body: " + lastBody);
     }
 
     @Test
     @Order(6)
     public void testLdapAccountsExist() throws Exception {
-        HttpRequest req = HttpRequest.newBuilder(URI.create(WRENIDM_BASE_URL + "/openidm/system/ldap/account?_queryId=query-all-ids"))
+        HttpRequest req = HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/openidm/system/ldap/account?_queryId=query-all-ids"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
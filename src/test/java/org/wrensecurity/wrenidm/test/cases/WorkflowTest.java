@@ -18,12 +18,11 @@ package org.wrensecurity.wrenidm.test.cases;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.junit.jupiter.api.Assertions.fail;
 
-import java.io.File;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -32,8 +31,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer;
-import org.testcontainers.containers.ComposeContainer;
+import org.wrensecurity.wrenidm.test.base.Await;
 import org.wrensecurity.wrenidm.test.base.BaseWrenidmTest;
+import org.wrensecurity.wrenidm.test.base.EnvironmentPool;
+import org.wrensecurity.wrenidm.test.base.EnvironmentResets;
+import org.wrensecurity.wrenidm.test.base.EnvironmentSpec;
 
 import tools.jackson.databind.JsonNode;
 
@@ -49,39 +51,24 @@ public class WorkflowTest extends BaseWrenidmTest {
     private String rejectTaskId;
 
     private JsonNode waitForWorkflowHistoryDecision(String workflowId, int timeoutSeconds) throws Exception {
-        final long deadlineNanos = System.nanoTime()
-            + java.util.concurrent.TimeUnit.SECONDS.toNanos(timeoutSeconds);
-
-        String lastBody = null;
-        int lastStatus = -1;
-
-        while (System.nanoTime() < deadlineNanos) {
-            HttpRequest req = HttpRequest.newBuilder()
-                .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processinstance/history/" + workflowId))
-                .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
-                .build();
-
-            HttpResponse<String> resp = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
-            lastStatus = resp.statusCode();
-
-            if (lastStatus == 200) {
-                lastBody = resp.body();
-                JsonNode historyBody = mapper.readTree(lastBody);
-
-                JsonNode decision = historyBody.path("processVariables").path("decision");
-                if (decision.isString() && !decision.asString().isBlank()) {
-                    return historyBody;
-                }
-            } else {
-                lastBody = resp.body();
-            }
-
-            Thread.sleep(500);
-        }
+        HttpRequest req = HttpRequest.newBuilder()
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processinstance/history/" + workflowId))
+            .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
+            .build();
 
-        fail("Timed out after " + timeoutSeconds + "s waiting for workflow history decision for workflowId="
-            + workflowId + ". Last status=" + lastStatus + ", last response body: " + lastBody);
-        return null;
+        HttpResponse<String> resp = Await.until("workflow history decision for workflowId=" + workflowId,
+                () -> httpClient.send(req, HttpResponse.BodyHandlers.ofString()),
+                r -> {
+                    if (r.statusCode() != 200) {
+                        return false;
+                    }
+                    JsonNode decision = mapper.readTree(r.body()).path("processVariables").path("decision");
+                    return decision.isString() && !decision.asString().isBlank();
+                })
+            .atMost(Duration.ofSeconds(timeoutSeconds))
+            .describedAs(r -> "status=" + r.statusCode() + ", response body: " + r.body())
+            .get();
+        return mapper.readTree(resp.body());
     }
 
     private static final String MANAGED_USER_DATA = """
@@ -140,17 +127,16 @@ public class WorkflowTest extends BaseWrenidmTest {
             """;
 
     @BeforeAll
-    public void init() throws InterruptedException {
-        environment = new ComposeContainer(new File("src/test/resources/cases/workflow/compose.yaml"));
-        environment.waitingFor(WRENIDM_CONTAINER_NAME, WRENIDM_STARTUP_WAIT_STRATEGY);
-        environment.start();
+    public void init() throws Exception {
+        environment = EnvironmentPool.acquire(EnvironmentSpec.forCase("workflow")
+                .withReset(EnvironmentResets.processInstances())
+                .withReset(EnvironmentResets.managedObjects("user"))
+                .withReset(EnvironmentResets.managedObjects("role")));
     }
 
     @AfterAll
     public void teardown() {
-        if (environment != null) {
-            environment.stop();
-        }
+        EnvironmentPool.release(environment);
     }
 
     @Test
@@ -158,7 +144,7 @@ public class WorkflowTest extends BaseWrenidmTest {
     public void testSetup() throws Exception {
         // Create a managed user for workflow testing
         HttpRequest createUserReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/managed/user/workflow"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user/workflow"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .PUT(HttpRequest.BodyPublishers.ofString(MANAGED_USER_DATA))
@@ -168,7 +154,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Create a managed role for workflow testing
         HttpRequest createRoleReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/managed/role/employee"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/role/employee"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .PUT(HttpRequest.BodyPublishers.ofString(MANAGED_ROLE_DATA))
@@ -182,7 +168,7 @@ public class WorkflowTest extends BaseWrenidmTest {
     public void testUserRole() throws Exception {
         // Verify user has no roles initially
         HttpRequest checkRolesReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/managed/user/workflow/roles?_queryId=query-all-ids"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user/workflow/roles?_queryId=query-all-ids"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> checkRolesResp = httpClient.send(checkRolesReq, HttpResponse.BodyHandlers.ofString());
@@ -192,7 +178,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Create user-role assignment workflow
         HttpRequest createWorkflowReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processinstance?_action=create"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processinstance?_action=create"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(USER_ROLE_WORKFLOW_DATA))
@@ -204,7 +190,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Verify approval task
         HttpRequest getTaskReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/taskinstance?_queryId=filtered-query&processInstanceId="
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/taskinstance?_queryId=filtered-query&processInstanceId="
                 + workflowId + "&taskDefinitionKey=approval"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
@@ -218,7 +204,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Approve the task to complete the workflow
         HttpRequest approveTaskReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/taskinstance/" + taskId + "?_action=complete"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/taskinstance/" + taskId + "?_action=complete"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(APPROVAL_DATA))
@@ -235,7 +221,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Check user roles (should now have employee role)
         HttpRequest checkFinalRolesReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/managed/user/workflow/roles?_queryFilter=true"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user/workflow/roles?_queryFilter=true"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> checkFinalRolesResp = httpClient.send(checkFinalRolesReq, HttpResponse.BodyHandlers.ofString());
@@ -250,7 +236,7 @@ public class WorkflowTest extends BaseWrenidmTest {
     public void testOnboarding() throws Exception {
         // Create onboarding workflow for a new user
         HttpRequest createWorkflowReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processinstance?_action=create"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processinstance?_action=create"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(ONBOARDING_WORKFLOW_DATA))
@@ -262,7 +248,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Verify approval task
         HttpRequest getTaskReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/taskinstance?_queryId=filtered-query&processInstanceId="
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/taskinstance?_queryId=filtered-query&processInstanceId="
                 + workflowId + "&taskDefinitionKey=approval"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
@@ -275,7 +261,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Claim task
         HttpRequest claimTaskReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/taskinstance/" + taskId + "?_action=claim"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/taskinstance/" + taskId + "?_action=claim"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(CLAIM_DATA))
@@ -287,7 +273,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Approve task
         HttpRequest approveTaskReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/taskinstance/" + taskId + "?_action=complete"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/taskinstance/" + taskId + "?_action=complete"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(APPROVAL_DATA))
@@ -302,7 +288,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Verify that the user was successfully created by the workflow
         HttpRequest getUserReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/managed/user/onboarding"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/managed/user/onboarding"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> getUserResp = httpClient.send(getUserReq, HttpResponse.BodyHandlers.ofString());
@@ -316,7 +302,7 @@ public class WorkflowTest extends BaseWrenidmTest {
     public void testProcessDefinitionsQueryAndRead() throws Exception {
         // Query all process definitions to verify workflow deployments
         HttpRequest queryDefsReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processdefinition?_queryId=filtered-query"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processdefinition?_queryId=filtered-query"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> queryDefsResp = httpClient.send(queryDefsReq, HttpResponse.BodyHandlers.ofString());
@@ -326,7 +312,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Query for specific process definition by key (onboarding)
         HttpRequest getOnboardingDefReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processdefinition?_queryId=filtered-query&key=onboarding"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processdefinition?_queryId=filtered-query&key=onboarding"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> getOnboardingDefResp = httpClient.send(getOnboardingDefReq, HttpResponse.BodyHandlers.ofString());
@@ -339,7 +325,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Read specific fields from process definition (form properties, template, diagram)
         HttpRequest readDefFieldsReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processdefinition/" + onboardingDefId
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processdefinition/" + onboardingDefId
                 + "?_fields=formProperties,formGenerationTemplate,diagram"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
@@ -360,7 +346,7 @@ public class WorkflowTest extends BaseWrenidmTest {
             .replace("\"userName\": \"onboarding\"", "\"userName\": \"onboarding-3\"");
 
         HttpRequest createWorkflowReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processinstance?_action=create"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processinstance?_action=create"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(createBody))
@@ -372,7 +358,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Query process instance
         HttpRequest queryInstanceReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processinstance?_queryId=filtered-query&processInstanceId="
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processinstance?_queryId=filtered-query&processInstanceId="
                 + crudWorkflowId))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
@@ -384,7 +370,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Read process instance details including variables and tasks
         HttpRequest readInstanceReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processinstance/" + crudWorkflowId))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processinstance/" + crudWorkflowId))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> readInstanceResp = httpClient.send(readInstanceReq, HttpResponse.BodyHandlers.ofString());
@@ -398,7 +384,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Delete the process instance and verify deletion
         HttpRequest deleteInstanceReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processinstance/" + crudWorkflowId))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processinstance/" + crudWorkflowId))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .DELETE()
             .build();
@@ -411,7 +397,7 @@ public class WorkflowTest extends BaseWrenidmTest {
     public void testDeletedProcessInstanceHistory() throws Exception {
         // Verify the deletion is recorded in history with proper reason
         HttpRequest getDeletedHistoryReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processinstance/history/" + crudWorkflowId))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processinstance/history/" + crudWorkflowId))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> getDeletedHistoryResp = httpClient.send(getDeletedHistoryReq, HttpResponse.BodyHandlers.ofString());
@@ -430,7 +416,7 @@ public class WorkflowTest extends BaseWrenidmTest {
             .replace("\"userName\": \"onboarding\"", "\"userName\": \"onboarding-4\"");
 
         HttpRequest createWorkflowReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/processinstance?_action=create"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/processinstance?_action=create"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(createBody))
@@ -441,7 +427,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Query for approval task associated with the workflow
         HttpRequest queryTaskReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/taskinstance?_queryId=filtered-query&processInstanceId="
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/taskinstance?_queryId=filtered-query&processInstanceId="
                 + rejectWorkflowId + "&taskDefinitionKey=approval"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
@@ -454,7 +440,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Read task details including assignee, candidates, and variables
         HttpRequest readTaskReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/taskinstance/" + rejectTaskId))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/taskinstance/" + rejectTaskId))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
         HttpResponse<String> readTaskResp = httpClient.send(readTaskReq, HttpResponse.BodyHandlers.ofString());
@@ -469,7 +455,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Claim the task to assign it to the current user
         HttpRequest claimTaskReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/taskinstance/" + rejectTaskId + "?_action=claim"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/taskinstance/" + rejectTaskId + "?_action=claim"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(CLAIM_DATA))
@@ -480,7 +466,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Complete the task with rejection decision (testing rejection workflow path)
         HttpRequest completeTaskReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/taskinstance/" + rejectTaskId + "?_action=complete"))
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/taskinstance/" + rejectTaskId + "?_action=complete"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .header("Content-Type", "application/json")
             .POST(HttpRequest.BodyPublishers.ofString(REJECTION_DATA))
@@ -491,7 +477,7 @@ public class WorkflowTest extends BaseWrenidmTest {
 
         // Verify task appears in history with completion timestamp
         HttpRequest queryTaskHistoryReq = HttpRequest.newBuilder()
-            .uri(URI.create(WRENIDM_BASE_URL + "/openidm/workflow/taskinstance/history?_queryId=filtered-query&processInstanceId="
+            .uri(URI.create(environment.getBaseUrl() + "/openidm/workflow/taskinstance/history?_queryId=filtered-query&processInstanceId="
                 + rejectWorkflowId + "&taskDefinitionKey=approval"))
             .header("Authorization", ADMIN_AUTHORIZATION_HEADER_VALUE)
             .build();
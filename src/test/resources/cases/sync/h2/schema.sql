@@ -322,6 +322,40 @@ CREATE TABLE IF NOT EXISTS wrenidm.auditsync (
   PRIMARY KEY (objectid)
 );
 
+-- -----------------------------------------------------
+-- Table wrenidm.manageduser (explicit mapping of managed/user in repo.jdbc-explicit.json)
+-- -----------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS wrenidm.manageduser (
+  objectid VARCHAR(255) NOT NULL,
+  rev VARCHAR(38) NOT NULL,
+  username VARCHAR(255) DEFAULT NULL,
+  password TEXT,
+  givenname VARCHAR(255) DEFAULT NULL,
+  sn VARCHAR(255) DEFAULT NULL,
+  mail VARCHAR(255) DEFAULT NULL,
+  description VARCHAR(255) DEFAULT NULL,
+  accountstatus VARCHAR(32) DEFAULT NULL,
+  telephonenumber VARCHAR(64) DEFAULT NULL,
+  postaladdress VARCHAR(255) DEFAULT NULL,
+  city VARCHAR(255) DEFAULT NULL,
+  postalcode VARCHAR(32) DEFAULT NULL,
+  country VARCHAR(255) DEFAULT NULL,
+  stateprovince VARCHAR(255) DEFAULT NULL,
+  preferences TEXT,
+  kbainfo TEXT,
+  lastchanged TEXT,
+  consentedmappings TEXT,
+  effectiveroles TEXT,
+  effectiveassignments TEXT,
+  PRIMARY KEY (objectid)
+);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_manageduser_username ON wrenidm.manageduser (username);
+CREATE INDEX IF NOT EXISTS idx_manageduser_givenname ON wrenidm.manageduser (givenname);
+CREATE INDEX IF NOT EXISTS idx_manageduser_sn ON wrenidm.manageduser (sn);
+CREATE INDEX IF NOT EXISTS idx_manageduser_mail ON wrenidm.manageduser (mail);
+CREATE INDEX IF NOT EXISTS idx_manageduser_accountstatus ON wrenidm.manageduser (accountstatus);
+
 -- -----------------------------------------------------
 -- Table wrenidm.internaluser
 -- -----------------------------------------------------